@@ -0,0 +1,24 @@
+package com.jmunoz.books.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+import reactor.netty.resources.LoopResources;
+
+// Hilos de Netty. Un hilo acepta las conexiones y books.netty.worker-threads hilos (event loop)
+// atienden todas las conexiones abiertas, estén activas o esperando otra petición (keep-alive).
+// Una conexión sin tráfico no ocupa ningún hilo, solo su socket y unos pocos KB de buffers,
+// así que con pocos hilos se pueden mantener decenas de miles de conexiones.
+// Spring Boot usa este ReactorResourceFactory en lugar del suyo para crear el servidor.
+@Configuration
+public class NettyConfig {
+
+    @Bean
+    public ReactorResourceFactory reactorResourceFactory(@Value("${books.netty.worker-threads}") int workerThreads) {
+        ReactorResourceFactory resourceFactory = new ReactorResourceFactory();
+        resourceFactory.setUseGlobalResources(false);
+        resourceFactory.setLoopResourcesSupplier(() -> LoopResources.create("books-http", 1, workerThreads, true));
+        return resourceFactory;
+    }
+}
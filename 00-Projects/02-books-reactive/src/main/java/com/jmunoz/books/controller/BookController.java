@@ -0,0 +1,122 @@
+package com.jmunoz.books.controller;
+
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.exception.BookNotFoundException;
+import com.jmunoz.books.request.BookRequest;
+import com.jmunoz.books.store.BookStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Los mismos endpoints que BookController de 02-books, pero con WebFlux.
+// Ningún méto-do bloquea: devuelven un Mono (0 o 1 elementos) o un Flux (0 a N elementos)
+// y Spring los escribe en la respuesta cuando están listos, sin ocupar un hilo mientras tanto.
+@Tag(name = "Books Rest API Endpoints", description = "Operations related to books")
+@RestController
+@RequestMapping("/api/books")
+public class BookController {
+
+    private final BookStore bookStore;
+
+    @Autowired
+    public BookController(BookStore theBookStore) {
+        this.bookStore = theBookStore;
+        initilizeBooks();
+    }
+
+    private void initilizeBooks() {
+        List.of(
+                new Book(1, "Computer Science Pro", "Chad Darby", "Computer Science", 5),
+                new Book(2, "Java Spring Master", "Eric Roby", "Computer Science", 5),
+                new Book(3, "Why 1+1 Rocks", "Adil A.", "Math", 5),
+                new Book(4, "How Bears Hibernate", "Bob B.", "Science", 2),
+                new Book(5, "A Pirate's Treasure", "Curt Sea", "History", 3),
+                new Book(6, "Why 2+2 is Better", "Dan D.", "Math", 1)
+        ).forEach(bookStore::save);
+    }
+
+    // Flux.fromIterable recorre BookStore según el cliente pide books (backpressure):
+    // si el cliente lee despacio, Netty deja de pedir y no se acumulan books en memoria.
+    // Con Accept: application/json se escribe un array JSON; con Accept: application/x-ndjson
+    // se escribe un book por línea según se van leyendo.
+    @Operation(summary = "Get all books", description = "Retrieve a list of all available books")
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Book> getBooks(@Parameter(description = "Optional query parameter")
+                                   @RequestParam(required=false) String category) {
+        Flux<Book> books = Flux.fromIterable(bookStore.findAll());
+        if (category == null) {
+            return books;
+        }
+
+        return books.filter(book -> book.getCategory().equalsIgnoreCase(category));
+    }
+
+    // Mono.defer para que la búsqueda se haga al suscribirse (cuando Spring procesa la respuesta)
+    // y no al llamar al méto-do. Si no existe, el Mono termina con BookNotFoundException,
+    // que BookExceptionHandler convierte en 404 igual que en 02-books.
+    @Operation(summary = "Get a book by ID", description = "Retrieve a specific book by ID")
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/{id}")
+    public Mono<Book> getBookById(@Parameter(description = "Id of book to be retrieved")
+                                      @PathVariable @Min(value = 1) long id) {
+        return Mono.defer(() -> Mono.justOrEmpty(bookStore.findById(id)))
+                .switchIfEmpty(Mono.error(() -> new BookNotFoundException("Book not found - " + id)));
+    }
+
+    // Con Mono<BookRequest> el body se lee sin bloquear, según llega por la red.
+    // @Valid se aplica igual que en 02-books: si no es válido, el Mono termina con
+    // WebExchangeBindException.
+    @Operation(summary = "Create a new book", description = "Add a new book to the list")
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping
+    public Mono<Void> createBook(@Valid @RequestBody Mono<BookRequest> bookRequest) {
+        return bookRequest
+                .map(request -> convertToBook(bookStore.nextId(), request))
+                .doOnNext(bookStore::save)
+                .then();
+    }
+
+    // No content indica que devolvemos void.
+    @Operation(summary = "Update a book", description = "Update the details of an existing book")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PutMapping("/{id}")
+    public Mono<Book> updateBook(@Parameter(description = "Id of the book to update")
+                                     @PathVariable @Min(value = 1) long id,
+                                 @Valid @RequestBody Mono<BookRequest> bookRequest) {
+        return bookRequest
+                .flatMap(request -> Mono.justOrEmpty(bookStore.update(convertToBook(id, request))))
+                .switchIfEmpty(Mono.error(() -> new BookNotFoundException("Book not found - " + id)));
+    }
+
+    // No content indica que devolvemos void.
+    @Operation(summary = "Delete a book", description = "Remove a book from the list")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteBook(@Parameter(description = "Id of the book to delete")
+            @PathVariable @Min(value = 1) long id) {
+        return Mono.defer(() -> Mono.justOrEmpty(bookStore.delete(id)))
+                .switchIfEmpty(Mono.error(() -> new BookNotFoundException("Book not found - " + id)))
+                .then();
+    }
+
+    private Book convertToBook(long id, BookRequest bookRequest) {
+        return new Book(
+                id,
+                bookRequest.getTitle(),
+                bookRequest.getAuthor(),
+                bookRequest.getCategory(),
+                bookRequest.getRating()
+        );
+    }
+}
@@ -0,0 +1,58 @@
+package com.jmunoz.books.entity;
+
+public class Book {
+
+    private long id;
+    private String title;
+    private String author;
+    private String category;
+    private int rating;
+
+    public Book(long id, String title, String author, String category, int rating) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.category = category;
+        this.rating = rating;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public void setRating(int rating) {
+        this.rating = rating;
+    }
+}
@@ -0,0 +1,17 @@
+package com.jmunoz.books.exception;
+
+// Esta es la excepción que lanzamos cuando no se encuentra un book
+public class BookNotFoundException extends RuntimeException {
+
+    public BookNotFoundException(String message) {
+        super(message);
+    }
+
+    public BookNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public BookNotFoundException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,55 @@
+package com.jmunoz.books.store;
+
+import com.jmunoz.books.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Almacén en memoria de books, compartido por todas las peticiones.
+// En WebFlux unos pocos hilos (event loop de Netty) atienden todas las peticiones,
+// así que ningún méto-do puede bloquear: no hay locks, solo estructuras concurrentes.
+// - Un ConcurrentSkipListMap ordenado por id: get/put/remove en O(log n), y se puede
+//   recorrer en orden mientras otros hilos escriben, sin copiarlo (para los Flux).
+// - Un AtomicLong como secuencia de ids, para que dos POST concurrentes nunca
+//   obtengan el mismo id.
+@Component
+public class BookStore {
+
+    private final ConcurrentNavigableMap<Long, Book> books = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Books ordenados por id. Es una vista del mapa, no una copia: el Flux pide los books
+    // de uno en uno según el cliente los va consumiendo.
+    public Collection<Book> findAll() {
+        return books.values();
+    }
+
+    public Optional<Book> findById(long id) {
+        return Optional.ofNullable(books.get(id));
+    }
+
+    public long nextId() {
+        return sequence.incrementAndGet();
+    }
+
+    // Guarda un book con un id ya asignado (por ejemplo, los books iniciales).
+    // La secuencia avanza si hace falta para no volver a repartir ese id.
+    public void save(Book book) {
+        sequence.accumulateAndGet(book.getId(), Math::max);
+        books.put(book.getId(), book);
+    }
+
+    // Sustituye el book solo si existe. Devuelve vacío si no existe.
+    public Optional<Book> update(Book book) {
+        return Optional.ofNullable(books.computeIfPresent(book.getId(), (id, previous) -> book));
+    }
+
+    // Elimina el book y lo devuelve. Devuelve vacío si no existe.
+    public Optional<Book> delete(long id) {
+        return Optional.ofNullable(books.remove(id));
+    }
+}
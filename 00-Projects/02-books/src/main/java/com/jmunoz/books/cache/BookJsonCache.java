@@ -0,0 +1,74 @@
+package com.jmunoz.books.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.store.BookIndex;
+import com.jmunoz.books.store.BookStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Caché opcional del JSON (bytes UTF-8) de cada book, junto al propio book.
+// Se activa con books.json-cache.enabled=true en application.properties.
+// Con una proporción de lecturas/escrituras de 1000:1, serializar cada book una sola vez
+// evita que Jackson recorra los getters por reflexión en cada GET /api/books/{id}.
+//
+// Cada entrada guarda también el book del que sale el JSON y solo se usa si sigue siendo
+// el mismo objeto que hay en BookStore. Como BookStore sustituye el book en cada escritura,
+// nunca se devuelve un JSON antiguo, aunque una lectura y una escritura se crucen.
+// Además, al actualizar o eliminar un book se borra su entrada para liberar memoria.
+@Component
+@ConditionalOnProperty(name = "books.json-cache.enabled", havingValue = "true")
+public class BookJsonCache implements BookIndex {
+
+    private record Entry(Book book, byte[] json) {
+    }
+
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final BookStore bookStore;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public BookJsonCache(BookStore theBookStore, ObjectMapper theObjectMapper) {
+        this.bookStore = theBookStore;
+        this.objectMapper = theObjectMapper;
+        theBookStore.addIndex(this);
+    }
+
+    // JSON del book, serializado solo la primera vez.
+    public byte[] json(Book book) throws JsonProcessingException {
+        Entry entry = entries.get(book.getId());
+        if (entry != null && entry.book() == book) {
+            return entry.json();
+        }
+
+        Entry created = new Entry(book, objectMapper.writeValueAsBytes(book));
+        entries.put(book.getId(), created);
+
+        // Si el book cambió o se eliminó mientras lo serializábamos, la invalidación
+        // pudo llegar antes que nuestro put(). Quitamos la entrada para no dejarla huérfana.
+        if (bookStore.findById(book.getId()).orElse(null) != book) {
+            entries.remove(book.getId(), created);
+        }
+
+        return created.json();
+    }
+
+    @Override
+    public void update(Book previous, Book current) {
+        if (previous != null) {
+            entries.remove(previous.getId());
+        }
+    }
+
+    // Con un catálogo nuevo ninguna entrada sirve, así que se vacía la caché de golpe.
+    @Override
+    public void replace(Collection<Book> previous, Collection<Book> current) {
+        entries.clear();
+    }
+}
@@ -0,0 +1,56 @@
+package com.jmunoz.books.cache;
+
+import com.jmunoz.books.entity.Book;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+// Convierte un Book a JSON escribiendo directamente los bytes de BookJsonCache.
+// Spring Boot registra los beans HttpMessageConverter delante de los de por defecto,
+// así que cualquier endpoint que devuelva un Book como JSON usa este converter en
+// lugar de Jackson. Los demás tipos y media types (por ejemplo List<Book>) siguen con Jackson.
+// Solo escribe, la lectura de peticiones sigue siendo de Jackson.
+@Component
+@ConditionalOnProperty(name = "books.json-cache.enabled", havingValue = "true")
+public class BookJsonHttpMessageConverter extends AbstractHttpMessageConverter<Book> {
+
+    private final BookJsonCache bookJsonCache;
+
+    @Autowired
+    public BookJsonHttpMessageConverter(BookJsonCache theBookJsonCache) {
+        super(MediaType.APPLICATION_JSON);
+        this.bookJsonCache = theBookJsonCache;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Book.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Book readInternal(Class<? extends Book> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Book JSON cache is write only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(Book book, MediaType contentType) throws IOException {
+        return (long) bookJsonCache.json(book).length;
+    }
+
+    @Override
+    protected void writeInternal(Book book, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(bookJsonCache.json(book));
+    }
+}
@@ -0,0 +1,31 @@
+package com.jmunoz.books.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Formatos binarios, además de JSON, para las respuestas y peticiones de la API.
+// El cliente elige el formato con la cabecera Accept (y Content-Type al enviar un book):
+// - application/cbor
+// - application/x-jackson-smile
+// Los dos son más compactos que JSON y más rápidos de escribir y leer, sobre todo las listas
+// grandes (ver BookWireFormatBenchmark). Sin Accept, o con application/json, todo sigue igual.
+// Se crean con el Jackson2ObjectMapperBuilder de Spring Boot para que usen la misma
+// configuración de Jackson (spring.jackson.*) que el JSON.
+@Configuration
+public class BookWireFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,29 @@
+package com.jmunoz.books.config;
+
+import com.jmunoz.books.metrics.BookRequestMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Registra los timers books.requests (BookRequestMetrics) para todos los endpoints de la API.
+// Va antes que cualquier otro interceptor, para que las peticiones que rechaza
+// el limitador de peticiones (429) también cuenten.
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final BookRequestMetrics bookRequestMetrics;
+
+    @Autowired
+    public MetricsConfig(BookRequestMetrics theBookRequestMetrics) {
+        this.bookRequestMetrics = theBookRequestMetrics;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(bookRequestMetrics)
+                .addPathPatterns("/api/**")
+                .order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
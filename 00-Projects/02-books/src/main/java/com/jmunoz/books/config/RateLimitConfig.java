@@ -0,0 +1,27 @@
+package com.jmunoz.books.config;
+
+import com.jmunoz.books.ratelimit.BookRateLimitInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Registra el limitador de peticiones para todos los endpoints de la API
+// (books.rate-limit.enabled=true). Swagger y Actuator no cuentan.
+@Configuration
+@ConditionalOnProperty(name = "books.rate-limit.enabled", havingValue = "true")
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final BookRateLimitInterceptor bookRateLimitInterceptor;
+
+    @Autowired
+    public RateLimitConfig(BookRateLimitInterceptor theBookRateLimitInterceptor) {
+        this.bookRateLimitInterceptor = theBookRateLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(bookRateLimitInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -1,32 +1,89 @@
 package com.jmunoz.books.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.jmunoz.books.entity.Book;
 import com.jmunoz.books.exception.BookNotFoundException;
+import com.jmunoz.books.exception.BookPreconditionFailedException;
+import com.jmunoz.books.ratelimit.RequestCost;
+import com.jmunoz.books.request.BookOperation;
 import com.jmunoz.books.request.BookRequest;
+import com.jmunoz.books.response.BookOperationResult;
+import com.jmunoz.books.response.BookPage;
+import com.jmunoz.books.response.BookRatingStats;
+import com.jmunoz.books.response.BookStats;
+import com.jmunoz.books.store.BookSort;
+import com.jmunoz.books.store.BookStore;
+import com.jmunoz.books.store.BookWrite;
+import com.jmunoz.books.validation.BookBatchValidator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Tag(name = "Books Rest API Endpoints", description = "Operations related to books")
 @RestController
 @RequestMapping("/api/books")
 public class BookController {
 
-    private final List<Book> books = new ArrayList<>();
+    // Los books ya no se guardan en un ArrayList del controller, sino en BookStore,
+    // que es seguro con peticiones concurrentes y busca por id en O(1).
+    private final BookStore bookStore;
 
-    public BookController() {
+    // El ObjectMapper que usa Spring Boot, para escribir la exportación NDJSON
+    // con la misma configuración de Jackson que el resto de respuestas.
+    private final ObjectMapper objectMapper;
+
+    // Writer de la exportación NDJSON. Sin FLUSH_AFTER_WRITE_VALUE, porque si no
+    // Jackson haría flush del output stream después de cada book.
+    private final ObjectWriter exportWriter;
+
+    // Cada cuántos books se hace flush en la exportación NDJSON.
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
+
+    // Las versiones de BookStore vuelven a empezar en cada arranque y cada instancia (shard)
+    // tiene las suyas, así que los ETag llevan además este valor aleatorio de la instancia.
+    // Si no, tras un reinicio un ETag antiguo podría coincidir con otro book o catálogo
+    // (un 304 falso, o un If-Match antiguo que se acepta).
+    private static final String ETAG_EPOCH = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+
+    // Valida los lotes de POST /api/books/batch.
+    private final BookBatchValidator bookBatchValidator;
+
+    @Autowired
+    public BookController(BookStore theBookStore, ObjectMapper theObjectMapper, BookBatchValidator theBookBatchValidator) {
+        this.bookStore = theBookStore;
+        this.objectMapper = theObjectMapper;
+        this.bookBatchValidator = theBookBatchValidator;
+        this.exportWriter = theObjectMapper.writerFor(Book.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
         initilizeBooks();
     }
 
+    // Si el catálogo ya se cargó desde disco (books.persistence.enabled=true),
+    // BookStore ignora estos books iniciales.
     private void initilizeBooks() {
-        books.addAll(List.of(
+        bookStore.seed(List.of(
                 new Book(1, "Computer Science Pro", "Chad Darby", "Computer Science", 5),
                 new Book(2, "Java Spring Master", "Eric Roby", "Computer Science", 5),
                 new Book(3, "Why 1+1 Rocks", "Adil A.", "Math", 5),
@@ -36,31 +93,149 @@ public class BookController {
         ));
     }
 
-    // Por defecto, Spring Boot devuelve el estado HTTP Ok, pero está bien ser explícito por
-    // si esto cambia.
+    // El ETag de la lista es la versión del catálogo. Si coincide con la cabecera If-None-Match,
+    // checkNotModified() deja la respuesta en 304 Not Modified y devolvemos null, sin construir
+    // la lista ni pasar por Jackson.
+    // Aquí no usamos @ResponseStatus(HttpStatus.OK), porque sobrescribiría el 304. El estado Ok
+    // lo indicamos explícitamente con ResponseEntity.ok().
+    // Devolver todo el catálogo es lo más caro de la API, así que gasta muchos más tokens del
+    // limitador (ver BookRateLimiter) que filtrar por categoría o pedir un book por id.
     @Operation(summary = "Get all books", description = "Retrieve a list of all available books")
-    @ResponseStatus(HttpStatus.OK)
+    @RequestCost(value = 20, filters = "category", filteredCost = 2)
     @GetMapping
-    public List<Book> getBooks(@Parameter(description = "Optional query parameter")
-                                   @RequestParam(required=false) String category) {
+    public ResponseEntity<List<Book>> getBooks(@Parameter(description = "Optional query parameter")
+                                                   @RequestParam(required=false) String category,
+                                               WebRequest request) {
+        // La versión se lee antes que los books, así los books nunca son más antiguos que el ETag.
+        String eTag = catalogETag(bookStore.version());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
         if (category == null) {
-            return books;
+            return ResponseEntity.ok().eTag(eTag).body(bookStore.findAll());
         }
 
-        return books.stream()
-                .filter(book -> book.getCategory().equalsIgnoreCase(category))
-                .toList();
+        // El filtro usa el índice de categorías de BookStore, en vez de recorrer
+        // todos los books comparando la categoría con equalsIgnoreCase.
+        return ResponseEntity.ok().eTag(eTag).body(bookStore.findByCategory(category));
+    }
+
+    // Listado paginado. Se usa en lugar del anterior cuando viene el query parameter limit
+    // (params = "limit"), así GET /api/books sin limit sigue devolviendo la lista completa.
+    // La página siguiente se pide pasando en cursor el valor next de la respuesta.
+    // Un cursor o un orden no válidos lanzan IllegalArgumentException, que BookExceptionHandler
+    // convierte en un 400 Bad Request.
+    @Operation(summary = "Get a page of books", description = "Retrieve a page of books sorted by id, title or rating")
+    @ResponseStatus(HttpStatus.OK)
+    @RequestCost(2)
+    @GetMapping(params = "limit")
+    public BookPage getBooksPage(@Parameter(description = "Optional query parameter")
+                                     @RequestParam(required = false) String category,
+                                 @Parameter(description = "Maximum number of books in the page")
+                                     @RequestParam @Min(value = 1) @Max(value = 1000) int limit,
+                                 @Parameter(description = "Cursor returned as next by the previous page")
+                                     @RequestParam(required = false) String cursor,
+                                 @Parameter(description = "Sort key: id, title or rating")
+                                     @RequestParam(defaultValue = "id") String sort,
+                                 @Parameter(description = "Sort order: asc or desc")
+                                     @RequestParam(defaultValue = "asc") String order) {
+        boolean descending = switch (order.toLowerCase()) {
+            case "asc" -> false;
+            case "desc" -> true;
+            default -> throw new IllegalArgumentException("Invalid order - " + order);
+        };
+
+        return bookStore.findPage(category, BookSort.from(sort), descending, limit, cursor);
+    }
+
+    // Búsqueda de texto en el título y el autor, por ejemplo /api/books/search?q=java spr
+    // Cada palabra de q encuentra las palabras que empiezan por ella, usando el índice invertido
+    // de BookStore en lugar de recorrer todos los books con contains().
+    // Los resultados se ordenan por número de palabras encontradas y luego por rating.
+    @Operation(summary = "Search books", description = "Full-text search over book title and author")
+    @ResponseStatus(HttpStatus.OK)
+    @RequestCost(2)
+    @GetMapping("/search")
+    public List<Book> searchBooks(@Parameter(description = "Words to search for in title and author")
+                                      @RequestParam @Size(min = 1, max = 100) String q,
+                                  @Parameter(description = "Maximum number of books to return")
+                                      @RequestParam(defaultValue = "10") @Min(value = 1) @Max(value = 100) int limit) {
+        return bookStore.search(q, limit);
+    }
+
+    // Estadísticas de rating (número de books, media e histograma de 1 a 5) de todo el catálogo
+    // y de cada categoría. BookStore las mantiene al escribir, así que no se recorren los books
+    // en cada petición. Las de un autor se piden con ?author=.
+    @Operation(summary = "Get rating stats", description = "Rating count, average and histogram of the catalog and per category")
+    @ResponseStatus(HttpStatus.OK)
+    @RequestCost(5)
+    @GetMapping("/stats")
+    public BookStats getStats() {
+        return bookStore.stats();
+    }
+
+    // Estadísticas de una sola categoría, por ejemplo /api/books/stats?category=math
+    @Operation(summary = "Get rating stats of a category", description = "Rating count, average and histogram of one category")
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(value = "/stats", params = "category")
+    public BookRatingStats getCategoryStats(@Parameter(description = "Category, ignoring case")
+                                                @RequestParam String category) {
+        return bookStore.categoryStats(category);
+    }
+
+    // Estadísticas de un solo autor, por ejemplo /api/books/stats?author=eric roby
+    @Operation(summary = "Get rating stats of an author", description = "Rating count, average and histogram of one author")
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(value = "/stats", params = {"author", "!category"})
+    public BookRatingStats getAuthorStats(@Parameter(description = "Author, ignoring case")
+                                              @RequestParam String author) {
+        return bookStore.authorStats(author);
+    }
+
+    // Exportación del catálogo completo en NDJSON (un book en JSON por línea).
+    // Con StreamingResponseBody los books se escriben directamente en el output stream
+    // según se recorre BookStore, sin construir la lista completa ni dejar que Jackson
+    // la guarde en un buffer, así que la memoria usada no depende del tamaño del catálogo.
+    // Se hace flush tras el primer book para que el cliente reciba los primeros bytes enseguida.
+    @Operation(summary = "Export all books", description = "Stream every book as newline-delimited JSON")
+    @RequestCost(50)
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<Book> books = bookStore.streamAll();
+                 JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                // Cada book termina con su propio salto de línea, así que no queremos
+                // el separador (un espacio) que Jackson pone entre valores raíz.
+                generator.setRootValueSeparator(null);
+
+                Iterator<Book> iterator = books.iterator();
+                long written = 0;
+                while (iterator.hasNext()) {
+                    exportWriter.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                    if (++written % EXPORT_FLUSH_INTERVAL == 1) {
+                        generator.flush();
+                    }
+                }
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     // Validación de data usando el paquete Jakarta Validations Constraints.
     // En este caso @Min(value = 1)
-    // Por defecto, Spring Boot devuelve el estado HTTP Ok, pero está bien ser explícito por
-    // si esto cambia.
+    // El ETag es el id y la versión del book. Igual que en getBooks(), si coincide con
+    // If-None-Match se devuelve 304 Not Modified sin pasar por Jackson, y por eso el estado
+    // Ok se indica con ResponseEntity.ok() en vez de con @ResponseStatus.
     @Operation(summary = "Get a book by ID", description = "Retrieve a specific book by ID")
-    @ResponseStatus(HttpStatus.OK)
     @GetMapping("/{id}")
-    public Book getBookById(@Parameter(description = "Id of book to be retrieved")
-                                @PathVariable @Min(value = 1) long id) {
+    public ResponseEntity<Book> getBookById(@Parameter(description = "Id of book to be retrieved")
+                                                @PathVariable @Min(value = 1) long id,
+                                            WebRequest request) {
 
         // Validación de data usando Clausula Guarda.
         // El problema es que es muy tedioso si hay que validar muchos campos.
@@ -75,10 +250,15 @@ public class BookController {
         //
         // Otra opción que es la que queda activa es crear una clase anotada con @ControllerAdvice,
         // que gestiona excepciones y sirve para todos los controllers.
-        return books.stream()
-                .filter(book -> book.getId() == id)
-                .findFirst()
-                .orElseThrow(() -> new BookNotFoundException("Book not found - " + id));
+        Book book = bookStore.findById(id)
+                .orElseThrow(() -> new BookNotFoundException(id));
+
+        String eTag = bookETag(book);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(book);
     }
 
     // Notar que un POST necesita crear un id, no pasarle el id en el body.
@@ -92,28 +272,31 @@ public class BookController {
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping
     public void createBook(@Valid @RequestBody BookRequest bookRequest) {
-        long id = books.isEmpty() ? 1 : books.getLast().getId() + 1;
-        Book book = convertToBook(id, bookRequest);
-        books.add(book);
+        // El id lo reparte la secuencia atómica de BookStore, así que dos POST
+        // concurrentes nunca obtienen el mismo id.
+        Book book = convertToBook(bookStore.nextId(), bookRequest);
+        bookStore.save(book);
     }
 
     // No content indica que devolvemos void.
+    // Con la cabecera opcional If-Match (el ETag que obtuvo el cliente) solo se actualiza
+    // si nadie ha modificado el book desde entonces. Si no, se devuelve 412 Precondition Failed.
+    // El nuevo ETag se devuelve en la cabecera ETag.
     @Operation(summary = "Update a book", description = "Update the details of an existing book")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @PutMapping("/{id}")
     public Book updateBook(@Parameter(description = "Id of the book to update")
                                @PathVariable @Min(value = 1) long id,
-                           @Valid @RequestBody BookRequest bookRequest) {
-        for (int i = 0; i < books.size(); i++) {
-            if (books.get(i).getId() == id) {
-                Book updatedBook = convertToBook(id, bookRequest);
-                books.set(i, updatedBook);
-                return updatedBook;
-            }
-        }
+                           @Valid @RequestBody BookRequest bookRequest,
+                           @Parameter(description = "Optional ETag the update is conditional on")
+                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                           HttpServletResponse response) {
+        // Si book no existe lanzamos la excepción.
+        Book book = bookStore.update(convertToBook(id, bookRequest), expectedVersion(id, ifMatch))
+                .orElseThrow(() -> new BookNotFoundException(id));
 
-        // Si book no fue encontrado en el bucle de arriba lanzamos la excepción.
-        throw new BookNotFoundException("Book not found - " + id);
+        response.setHeader(HttpHeaders.ETAG, bookETag(book));
+        return book;
     }
 
     // No content indica que devolvemos void.
@@ -121,15 +304,102 @@ public class BookController {
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @DeleteMapping("/{id}")
     public void deleteBook(@Parameter(description = "Id of the book to delete")
-            @PathVariable @Min(value = 1) long id) {
+            @PathVariable @Min(value = 1) long id,
+                           @Parameter(description = "Optional ETag the delete is conditional on")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         // Si book no existe lanza la excepción.
-        books.stream()
-                .filter(book -> book.getId() == id)
-                .findFirst()
-                .orElseThrow(() -> new BookNotFoundException("Book not found - " + id));
+        // Con If-Match solo se elimina si la versión coincide, igual que en updateBook().
+        bookStore.delete(id, expectedVersion(id, ifMatch))
+                .orElseThrow(() -> new BookNotFoundException(id));
+    }
+
+    // Lote de operaciones create/update/delete en una sola petición, para los importadores.
+    // Primero se validan todas: BookBatchValidator aplica las validaciones de BookOperation y
+    // BookRequest a cada elemento (sin @Valid, para que los lotes grandes no pasen por Hibernate
+    // Validator y se validen en paralelo), y luego comprobamos que cada operación trae los campos
+    // que necesita. Si alguna no es válida devolvemos 400 y no se aplica ninguna.
+    // Después BookStore aplica el lote de una vez, con un solo lock y reservando los ids
+    // de los create como un bloque: o se aplican todas las operaciones o ninguna.
+    // Se devuelve el resultado de cada operación.
+    @Operation(summary = "Apply a batch of operations", description = "Create, update and delete books in a single request")
+    @ResponseStatus(HttpStatus.OK)
+    @RequestCost(20)
+    @PostMapping("/batch")
+    public List<BookOperationResult> applyBatch(@RequestBody @Size(min = 1, max = 10000) List<BookOperation> operations) {
+        bookBatchValidator.validate(operations);
+
+        List<BookWrite> writes = new ArrayList<>(operations.size());
+        for (BookOperation operation : operations) {
+            writes.add(convertToWrite(operation));
+        }
+
+        List<Book> books = bookStore.applyBatch(writes);
+
+        List<BookOperationResult> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            BookOperation.Type type = operations.get(i).getType();
+            Book book = books.get(i);
+
+            if (book == null) {
+                long id = writes.get(i).id();
+                results.add(new BookOperationResult(type, id, HttpStatus.NOT_FOUND.value(), "Book not found - " + id));
+            } else if (type == BookOperation.Type.CREATE) {
+                results.add(new BookOperationResult(type, book.getId(), HttpStatus.CREATED.value(), null));
+            } else {
+                results.add(new BookOperationResult(type, book.getId(), HttpStatus.NO_CONTENT.value(), null));
+            }
+        }
+
+        return results;
+    }
+
+    // Lanza IllegalArgumentException (400 Bad Request) si a la operación le falta el id o el book.
+    private BookWrite convertToWrite(BookOperation operation) {
+        boolean needsId = operation.getType() != BookOperation.Type.CREATE;
+        boolean needsBook = operation.getType() != BookOperation.Type.DELETE;
+
+        if ((needsId && operation.getId() == null) || (needsBook && operation.getBook() == null)) {
+            throw new IllegalArgumentException("Invalid operation - " + operation.getType());
+        }
+
+        return switch (operation.getType()) {
+            case CREATE -> BookWrite.create(convertToBook(0, operation.getBook()));
+            case UPDATE -> BookWrite.update(convertToBook(operation.getId(), operation.getBook()));
+            case DELETE -> BookWrite.delete(operation.getId());
+        };
+    }
+
+    // ETag fuerte de la lista de books: la versión del catálogo.
+    private static String catalogETag(long version) {
+        return "\"catalog-" + ETAG_EPOCH + "-" + version + "\"";
+    }
+
+    // ETag fuerte de un book: su id y su versión.
+    private static String bookETag(Book book) {
+        return "\"" + book.getId() + "-" + ETAG_EPOCH + "-" + book.getVersion() + "\"";
+    }
+
+    // Versión que indica la cabecera If-Match para el book id.
+    // Sin cabecera o con * vale cualquier versión. Un ETag débil (W/...), de otro book,
+    // de otro arranque u otra instancia, o mal formado nunca coincide, así que lanzamos
+    // BookPreconditionFailedException.
+    private static long expectedVersion(long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return BookStore.ANY_VERSION;
+        }
+
+        String prefix = "\"" + id + "-" + ETAG_EPOCH + "-";
+        String eTag = ifMatch.trim();
+        if (eTag.startsWith(prefix) && eTag.endsWith("\"") && eTag.length() > prefix.length() + 1) {
+            try {
+                return Long.parseLong(eTag.substring(prefix.length(), eTag.length() - 1));
+            } catch (NumberFormatException exc) {
+                // Cae al throw de abajo.
+            }
+        }
 
-        books.removeIf(book -> book.getId() == id);
+        throw new BookPreconditionFailedException("Book was modified - " + id);
     }
 
     private Book convertToBook(long id, BookRequest bookRequest) {
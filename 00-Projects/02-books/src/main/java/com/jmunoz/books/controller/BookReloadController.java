@@ -0,0 +1,57 @@
+package com.jmunoz.books.controller;
+
+import com.jmunoz.books.exception.BookUnauthorizedException;
+import com.jmunoz.books.ratelimit.RequestCost;
+import com.jmunoz.books.response.BookReloadResult;
+import com.jmunoz.books.seed.BookCatalogSeeder;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+// Recarga en caliente del catálogo desde el fichero books.seed.file (ver BookCatalogSeeder).
+// Si no hay fichero configurado o no es válido se devuelve 400 y el catálogo no cambia.
+// La recarga sustituye todo el catálogo y descarta lo escrito por la API, así que solo existe
+// con books.reload.enabled=true y solo se atiende con el token books.reload.token en la
+// cabecera X-Books-Reload-Token (401 si falta o no coincide).
+@Tag(name = "Books Rest API Endpoints", description = "Operations related to books")
+@RestController
+@RequestMapping("/api/books")
+@ConditionalOnProperty(name = "books.reload.enabled", havingValue = "true")
+public class BookReloadController {
+
+    static final String TOKEN_HEADER = "X-Books-Reload-Token";
+
+    private final BookCatalogSeeder bookCatalogSeeder;
+    private final byte[] tokenBytes;
+
+    @Autowired
+    public BookReloadController(BookCatalogSeeder theBookCatalogSeeder,
+                                @Value("${books.reload.token:}") String theToken) {
+        if (theToken.isBlank()) {
+            throw new IllegalArgumentException("Reload token (books.reload.token) must be set when reload is enabled");
+        }
+
+        this.bookCatalogSeeder = theBookCatalogSeeder;
+        this.tokenBytes = theToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // MessageDigest.isEqual() tarda lo mismo acierte o no, para no dar pistas del token.
+    @Operation(summary = "Reload the catalog", description = "Replace all books with the contents of the seed file")
+    @ResponseStatus(HttpStatus.OK)
+    @RequestCost(100)
+    @PostMapping("/reload")
+    public BookReloadResult reload(@RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        if (token == null || !MessageDigest.isEqual(tokenBytes, token.getBytes(StandardCharsets.UTF_8))) {
+            throw new BookUnauthorizedException("Missing or invalid " + TOKEN_HEADER + " header");
+        }
+
+        return bookCatalogSeeder.reload();
+    }
+}
@@ -0,0 +1,75 @@
+package com.jmunoz.books.controller;
+
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.exception.BookNotFoundException;
+import com.jmunoz.books.response.LoadTestStats;
+import com.jmunoz.books.store.BookStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Endpoints para las pruebas de carga (ver BookLoadTest en src/perf/java).
+// Solo existen con el profile loadtest, así que no se publican en la app normal.
+@Tag(name = "Load test Endpoints", description = "Only available with the loadtest profile")
+@Profile("loadtest")
+@RestController
+@RequestMapping("/api/loadtest")
+public class LoadTestController {
+
+    private final BookStore bookStore;
+
+    // Peticiones que se están atendiendo ahora mismo, y el máximo alcanzado.
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Autowired
+    public LoadTestController(BookStore theBookStore) {
+        this.bookStore = theBookStore;
+    }
+
+    // Igual que GET /api/books/{id}, pero antes espera delay milisegundos bloqueando el hilo,
+    // como si llamara a otro servicio lento (por ejemplo, uno de precios).
+    // Con hilos de plataforma cada petición en espera ocupa uno de los hilos de Tomcat;
+    // con virtual threads el hilo se libera mientras espera.
+    @Operation(summary = "Get a book after a slow downstream call", description = "Blocks for delay ms before reading the book")
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/books/{id}")
+    public Book getBookSlowly(@Parameter(description = "Id of book to be retrieved")
+                                  @PathVariable @Min(value = 1) long id,
+                              @Parameter(description = "Simulated downstream latency in milliseconds")
+                                  @RequestParam(defaultValue = "100") @Min(value = 0) @Max(value = 10000) long delay)
+            throws InterruptedException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(delay);
+            return bookStore.findById(id)
+                    .orElseThrow(() -> new BookNotFoundException(id));
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    // Máximo de peticiones atendidas a la vez y si esta petición se atiende en un virtual thread.
+    @Operation(summary = "Get load test stats", description = "Max concurrent slow requests and thread type")
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/stats")
+    public LoadTestStats getStats() {
+        return new LoadTestStats(maxInFlight.get(), Thread.currentThread().isVirtual());
+    }
+
+    // Vuelve a empezar a contar el máximo, por ejemplo después del calentamiento.
+    @Operation(summary = "Reset load test stats", description = "Reset the max concurrent slow requests")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @DeleteMapping("/stats")
+    public void resetStats() {
+        maxInFlight.set(inFlight.get());
+    }
+}
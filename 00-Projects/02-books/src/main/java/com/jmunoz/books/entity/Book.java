@@ -1,5 +1,7 @@
 package com.jmunoz.books.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class Book {
 
     private long id;
@@ -8,6 +10,11 @@ public class Book {
     private String category;
     private int rating;
 
+    // Versión del book, la asigna BookStore en cada escritura (1 al crearlo).
+    // No forma parte del JSON, se envía en la cabecera ETag.
+    @JsonIgnore
+    private long version;
+
     public Book(long id, String title, String author, String category, int rating) {
         this.id = id;
         this.title = title;
@@ -55,4 +62,12 @@ public class Book {
     public void setRating(int rating) {
         this.rating = rating;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
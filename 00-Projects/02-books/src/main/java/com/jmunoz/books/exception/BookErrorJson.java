@@ -0,0 +1,89 @@
+package com.jmunoz.books.exception;
+
+import java.nio.charset.StandardCharsets;
+
+// JSON de BookErrorResponse para los errores más frecuentes (404 de un id, 400 Invalid request
+// y 429 Too many requests), escrito directamente en bytes: todo el texto fijo está ya
+// codificado y solo se añaden el id (o los segundos de espera) y el timeStamp.
+// Así no se crea el BookErrorResponse ni se pasa por Jackson,
+// y cada respuesta reserva un único byte[] del tamaño exacto.
+// El JSON es el mismo que generaría Jackson con BookErrorResponse.
+final class BookErrorJson {
+
+    private static final byte[] NOT_FOUND_PREFIX = ascii("{\"status\":404,\"message\":\"Book not found - ");
+    private static final byte[] NOT_FOUND_TIMESTAMP = ascii("\",\"timeStamp\":");
+    private static final byte[] BAD_REQUEST_PREFIX = ascii("{\"status\":400,\"message\":\"Invalid request\",\"timeStamp\":");
+    private static final byte[] TOO_MANY_REQUESTS_PREFIX = ascii("{\"status\":429,\"message\":\"Too many requests - retry after ");
+    private static final byte[] TOO_MANY_REQUESTS_TIMESTAMP = ascii(" seconds\",\"timeStamp\":");
+    private static final byte END = '}';
+
+    private BookErrorJson() {
+    }
+
+    static byte[] notFound(long id, long timeStamp) {
+        byte[] json = new byte[NOT_FOUND_PREFIX.length + digits(id) + NOT_FOUND_TIMESTAMP.length + digits(timeStamp) + 1];
+        int next = copy(NOT_FOUND_PREFIX, json, 0);
+        next = writeLong(id, json, next);
+        next = copy(NOT_FOUND_TIMESTAMP, json, next);
+        next = writeLong(timeStamp, json, next);
+        json[next] = END;
+        return json;
+    }
+
+    static byte[] badRequest(long timeStamp) {
+        byte[] json = new byte[BAD_REQUEST_PREFIX.length + digits(timeStamp) + 1];
+        int next = copy(BAD_REQUEST_PREFIX, json, 0);
+        next = writeLong(timeStamp, json, next);
+        json[next] = END;
+        return json;
+    }
+
+    static byte[] tooManyRequests(long retryAfterSeconds, long timeStamp) {
+        byte[] json = new byte[TOO_MANY_REQUESTS_PREFIX.length + digits(retryAfterSeconds)
+                + TOO_MANY_REQUESTS_TIMESTAMP.length + digits(timeStamp) + 1];
+        int next = copy(TOO_MANY_REQUESTS_PREFIX, json, 0);
+        next = writeLong(retryAfterSeconds, json, next);
+        next = copy(TOO_MANY_REQUESTS_TIMESTAMP, json, next);
+        next = writeLong(timeStamp, json, next);
+        json[next] = END;
+        return json;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static int copy(byte[] source, byte[] json, int offset) {
+        System.arraycopy(source, 0, json, offset, source.length);
+        return offset + source.length;
+    }
+
+    // Número de caracteres de value en decimal (con el signo si es negativo).
+    private static int digits(long value) {
+        if (value < 0) {
+            return value == Long.MIN_VALUE ? 20 : digits(-value) + 1;
+        }
+
+        int digits = 1;
+        for (long limit = 10; digits < 19 && value >= limit; limit *= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    // Escribe value en decimal a partir de offset y devuelve la posición siguiente.
+    private static int writeLong(long value, byte[] json, int offset) {
+        if (value < 0) {
+            byte[] text = ascii(Long.toString(value));
+            return copy(text, json, offset);
+        }
+
+        int end = offset + digits(value);
+        int next = end;
+        do {
+            json[--next] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        return end;
+    }
+}
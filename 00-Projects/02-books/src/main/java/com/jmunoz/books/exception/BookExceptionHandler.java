@@ -1,34 +1,121 @@
 package com.jmunoz.books.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 // Con esta anotación permitimos que esta excepción pueda usarse
 // en todos los controllers.
+// Los 404, los 400 y los 429 son la mayoría de los errores (por ejemplo, clientes que prueban
+// ids al azar o que no respetan el límite de peticiones), así que su JSON se escribe
+// directamente en bytes con BookErrorJson en lugar de usar Jackson.
+// Cada error suma 1 en el contador books.errors, con el status y el tipo de excepción
+// (ver /actuator/metrics/books.errors).
 @ControllerAdvice
 public class BookExceptionHandler {
 
+    private static final String ERRORS_METRIC = "books.errors";
+
+    private final MeterRegistry meterRegistry;
+
+    // Los contadores se registran una sola vez y no en cada error.
+    private final Counter notFoundCounter;
+    private final Counter preconditionFailedCounter;
+    private final Counter unauthorizedCounter;
+    private final Counter tooManyRequestsCounter;
+    private final Map<Class<?>, Counter> badRequestCounters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookExceptionHandler(MeterRegistry theMeterRegistry) {
+        this.meterRegistry = theMeterRegistry;
+        this.notFoundCounter = counter(HttpStatus.NOT_FOUND, BookNotFoundException.class);
+        this.preconditionFailedCounter = counter(HttpStatus.PRECONDITION_FAILED, BookPreconditionFailedException.class);
+        this.unauthorizedCounter = counter(HttpStatus.UNAUTHORIZED, BookUnauthorizedException.class);
+        this.tooManyRequestsCounter = counter(HttpStatus.TOO_MANY_REQUESTS, BookRateLimitException.class);
+    }
+
     @ExceptionHandler
-    public ResponseEntity<BookErrorResponse> handleException(BookNotFoundException exc) {
+    public ResponseEntity<?> handleException(BookNotFoundException exc) {
+        notFoundCounter.increment();
+
+        // Las excepciones creadas solo con un mensaje siguen pasando por Jackson.
+        if (exc.getId() == 0) {
+            BookErrorResponse bookErrorResponse = new BookErrorResponse(
+                    HttpStatus.NOT_FOUND.value(),
+                    exc.getMessage(),
+                    System.currentTimeMillis()
+            );
+
+            return new ResponseEntity<>(bookErrorResponse, HttpStatus.NOT_FOUND);
+        }
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BookErrorJson.notFound(exc.getId(), System.currentTimeMillis()));
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<BookErrorResponse> handleException(BookPreconditionFailedException exc) {
+        preconditionFailedCounter.increment();
+
         BookErrorResponse bookErrorResponse = new BookErrorResponse(
-                HttpStatus.NOT_FOUND.value(),
+                HttpStatus.PRECONDITION_FAILED.value(),
                 exc.getMessage(),
                 System.currentTimeMillis()
         );
 
-        return new ResponseEntity<>(bookErrorResponse, HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(bookErrorResponse, HttpStatus.PRECONDITION_FAILED);
     }
 
     @ExceptionHandler
-    public ResponseEntity<BookErrorResponse> handleException(Exception exc) {
+    public ResponseEntity<BookErrorResponse> handleException(BookUnauthorizedException exc) {
+        unauthorizedCounter.increment();
+
         BookErrorResponse bookErrorResponse = new BookErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                "Invalid request",
+                HttpStatus.UNAUTHORIZED.value(),
+                exc.getMessage(),
                 System.currentTimeMillis()
         );
 
-        return new ResponseEntity<>(bookErrorResponse, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(bookErrorResponse, HttpStatus.UNAUTHORIZED);
+    }
+
+    // Retry-After indica en segundos cuándo le quedarán tokens al cliente.
+    @ExceptionHandler
+    public ResponseEntity<byte[]> handleException(BookRateLimitException exc) {
+        tooManyRequestsCounter.increment();
+
+        long retryAfter = exc.getRetryAfterSeconds();
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BookErrorJson.tooManyRequests(retryAfter, System.currentTimeMillis()));
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<byte[]> handleException(Exception exc) {
+        badRequestCounters.computeIfAbsent(exc.getClass(), type -> counter(HttpStatus.BAD_REQUEST, type))
+                .increment();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BookErrorJson.badRequest(System.currentTimeMillis()));
+    }
+
+    private Counter counter(HttpStatus status, Class<?> type) {
+        return Counter.builder(ERRORS_METRIC)
+                .description("Error responses by status and exception type")
+                .tag("status", String.valueOf(status.value()))
+                .tag("exception", type.getSimpleName())
+                .register(meterRegistry);
     }
 }
@@ -3,15 +3,33 @@ package com.jmunoz.books.exception;
 // Esta es la excepción que lanzamos cuando no se encuentra un book
 public class BookNotFoundException extends RuntimeException {
 
+    // Id del book que no se encontró, o 0 si la excepción se creó solo con un mensaje.
+    private final long id;
+
+    // Sin stack trace: es el caso habitual (un GET, PUT o DELETE de un id que no existe),
+    // no indica ningún fallo de la app y el 404 nunca muestra la traza, así que no pagamos
+    // por recorrer la pila en cada petición.
+    public BookNotFoundException(long id) {
+        super("Book not found - " + id, null, false, false);
+        this.id = id;
+    }
+
     public BookNotFoundException(String message) {
         super(message);
+        this.id = 0;
     }
 
     public BookNotFoundException(String message, Throwable cause) {
         super(message, cause);
+        this.id = 0;
     }
 
     public BookNotFoundException(Throwable cause) {
         super(cause);
+        this.id = 0;
+    }
+
+    public long getId() {
+        return id;
     }
 }
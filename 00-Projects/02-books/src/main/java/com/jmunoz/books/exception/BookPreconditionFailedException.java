@@ -0,0 +1,18 @@
+package com.jmunoz.books.exception;
+
+// Esta es la excepción que lanzamos cuando la cabecera If-Match de un PUT o DELETE
+// no coincide con la versión actual del book (otro cliente lo modificó antes).
+public class BookPreconditionFailedException extends RuntimeException {
+
+    public BookPreconditionFailedException(String message) {
+        super(message);
+    }
+
+    public BookPreconditionFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public BookPreconditionFailedException(Throwable cause) {
+        super(cause);
+    }
+}
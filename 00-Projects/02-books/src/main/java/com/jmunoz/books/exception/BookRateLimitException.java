@@ -0,0 +1,26 @@
+package com.jmunoz.books.exception;
+
+import java.util.concurrent.TimeUnit;
+
+// Esta es la excepción que lanzamos cuando un cliente ha gastado todos sus tokens
+// (ver BookRateLimiter). BookExceptionHandler devuelve 429 Too Many Requests.
+// Sin stack trace: un cliente que insiste puede provocar muchas y no es un fallo de la app.
+public class BookRateLimitException extends RuntimeException {
+
+    // Nanosegundos que el cliente tiene que esperar antes de volver a intentarlo.
+    private final long retryAfterNanos;
+
+    public BookRateLimitException(long retryAfterNanos) {
+        super("Too many requests", null, false, false);
+        this.retryAfterNanos = retryAfterNanos;
+    }
+
+    public long getRetryAfterNanos() {
+        return retryAfterNanos;
+    }
+
+    // Segundos enteros para la cabecera Retry-After, redondeando hacia arriba (al menos 1).
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,19 @@
+package com.jmunoz.books.exception;
+
+// Esta es la excepción que lanzamos cuando una petición que necesita credenciales
+// (por ejemplo, POST /api/books/reload) no las trae o no son válidas.
+// BookExceptionHandler devuelve 401 Unauthorized.
+public class BookUnauthorizedException extends RuntimeException {
+
+    public BookUnauthorizedException(String message) {
+        super(message);
+    }
+
+    public BookUnauthorizedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public BookUnauthorizedException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,22 @@
+package com.jmunoz.books.exception;
+
+import java.util.List;
+
+// Esta es la excepción que lanzamos cuando un lote de POST /api/books/batch no es válido.
+// violations son los mensajes de las validaciones incumplidas, con la posición de la
+// operación, por ejemplo "[3].book.title: Title is between 1 and 30 characters".
+// Igual que el resto de errores de validación, BookExceptionHandler devuelve 400 Invalid request.
+// Sin stack trace: es un error del cliente y los mensajes ya indican qué falla.
+public class BookValidationException extends RuntimeException {
+
+    private final List<String> violations;
+
+    public BookValidationException(List<String> violations) {
+        super("Invalid batch - " + violations, null, false, false);
+        this.violations = violations;
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+}
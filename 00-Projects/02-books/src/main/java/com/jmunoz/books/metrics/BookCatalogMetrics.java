@@ -0,0 +1,98 @@
+package com.jmunoz.books.metrics;
+
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.store.BookIndex;
+import com.jmunoz.books.store.BookStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Gauges del catálogo:
+// - books.catalog.size: número de books
+// - books.category.size: número de books de cada categoría (tag category, en minúsculas)
+// Los gauges no guardan ningún valor: Micrometer los calcula al leer las métricas
+// (por ejemplo, en cada scrape de Prometheus), así que no cuestan nada en cada petición.
+// El gauge de una categoría se registra la primera vez que aparece un book suyo. Si la
+// categoría se queda sin books el gauge sigue existiendo y vale 0.
+// Como mucho hay books.metrics.max-categories gauges de categorías, porque cada serie cuesta
+// memoria en Micrometer y en Prometheus. Los books del resto de categorías (y los que no tienen
+// categoría) cuentan en el gauge con category=other.
+@Component
+public class BookCatalogMetrics implements BookIndex {
+
+    private final BookStore bookStore;
+    private final MeterRegistry meterRegistry;
+
+    static final String OTHER_CATEGORY = "other";
+
+    private final Set<String> categories = ConcurrentHashMap.newKeySet();
+    private final int maxCategories;
+
+    @Autowired
+    public BookCatalogMetrics(BookStore theBookStore, MeterRegistry theMeterRegistry,
+                              @Value("${books.metrics.max-categories:50}") int theMaxCategories) {
+        this.bookStore = theBookStore;
+        this.meterRegistry = theMeterRegistry;
+        this.maxCategories = theMaxCategories;
+
+        Gauge.builder("books.catalog.size", bookStore, BookStore::size)
+                .description("Number of books in the catalog")
+                .register(meterRegistry);
+
+        // Todos los books menos los de las categorías con gauge propio.
+        Gauge.builder("books.category.size", this, BookCatalogMetrics::otherCount)
+                .description("Number of books in the category")
+                .tag("category", OTHER_CATEGORY)
+                .register(meterRegistry);
+
+        // addIndex() pasa por update() todos los books que ya existen.
+        bookStore.addIndex(this);
+    }
+
+    @Override
+    public void update(Book previous, Book current) {
+        if (current != null && current.getCategory() != null) {
+            register(current.getCategory().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    // Tras una recarga basta con las categorías nuevas, sin recorrer los books.
+    @Override
+    public void replace(Collection<Book> previous, Collection<Book> current) {
+        bookStore.categories().forEach(this::register);
+    }
+
+    // Casi siempre la categoría ya tiene gauge y no hace falta el lock. La categoría vacía
+    // (la de los books sin categoría en BookStore.categories()) cuenta en other.
+    private void register(String category) {
+        if (categories.contains(category) || category.isEmpty() || category.equals(OTHER_CATEGORY)) {
+            return;
+        }
+
+        synchronized (categories) {
+            if (categories.size() >= maxCategories || !categories.add(category)) {
+                return;
+            }
+        }
+
+        Gauge.builder("books.category.size", bookStore, store -> store.categoryStats(category).getCount())
+                .description("Number of books in the category")
+                .tag("category", category)
+                .register(meterRegistry);
+    }
+
+    private double otherCount() {
+        long count = bookStore.size();
+        for (String category : categories) {
+            count -= bookStore.categoryStats(category).getCount();
+        }
+        return Math.max(count, 0);
+    }
+}
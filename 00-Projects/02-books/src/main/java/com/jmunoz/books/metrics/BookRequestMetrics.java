@@ -0,0 +1,127 @@
+package com.jmunoz.books.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Timer books.requests de cada método de los controllers de la app (tags controller y endpoint,
+// por ejemplo BookController y getBookById) y de su resultado (tag outcome: SUCCESS, CLIENT_ERROR, SERVER_ERROR...), con
+// histograma de percentiles para Prometheus (histogram_quantile()).
+// Está pensado para no reservar memoria en cada petición, a diferencia de http.server.requests
+// de Spring Boot, que crea el contexto de la observación y sus tags en cada una:
+// - Los timers se registran una sola vez (los SUCCESS al arrancar) y se buscan por el Method
+// - El instante de inicio se guarda en un long[] por hilo, no en un atributo de la petición
+// - Micrometer registra cada duración en contadores ya creados
+// Las peticiones asíncronas (la exportación NDJSON) sí guardan el inicio en un atributo,
+// porque terminan en otro hilo.
+@Component
+public class BookRequestMetrics implements AsyncHandlerInterceptor, SmartInitializingSingleton {
+
+    public static final String METRIC = "books.requests";
+
+    private static final String APP_PACKAGE = "com.jmunoz.books";
+    private static final String START_ATTRIBUTE = BookRequestMetrics.class.getName() + ".start";
+
+    // Índice = status / 100. El 0 es para un status no válido.
+    private static final String[] OUTCOMES = {"UNKNOWN", "INFORMATIONAL", "SUCCESS", "REDIRECTION", "CLIENT_ERROR", "SERVER_ERROR"};
+    private static final int SUCCESS = 2;
+
+    private static final ThreadLocal<long[]> START = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final MeterRegistry meterRegistry;
+    // Se pide al arrancar y no en el constructor, porque el propio handler mapping
+    // depende de los interceptors (ver MetricsConfig).
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMapping;
+
+    // Timers de cada endpoint, uno por outcome (null hasta la primera petición con ese outcome).
+    private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookRequestMetrics(MeterRegistry theMeterRegistry,
+                              @Qualifier("requestMappingHandlerMapping") ObjectProvider<RequestMappingHandlerMapping> theHandlerMapping) {
+        this.meterRegistry = theMeterRegistry;
+        this.handlerMapping = theHandlerMapping;
+    }
+
+    // Registra los timers SUCCESS de todos los endpoints, para que aparezcan (a 0) antes
+    // de la primera petición.
+    @Override
+    public void afterSingletonsInstantiated() {
+        handlerMapping.getObject().getHandlerMethods().values().stream()
+                .filter(BookRequestMetrics::isAppEndpoint)
+                .forEach(handlerMethod -> timer(timers(handlerMethod.getMethod()), handlerMethod.getMethod(), SUCCESS));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // En la segunda pasada de una petición asíncrona el inicio ya está en el atributo.
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            START.get()[0] = System.nanoTime();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, START.get()[0]);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !isAppEndpoint(handlerMethod)) {
+            return;
+        }
+
+        Object asyncStart = request.getAttribute(START_ATTRIBUTE);
+        long start = asyncStart != null ? (Long) asyncStart : START.get()[0];
+
+        int status = response.getStatus();
+        int outcome = status >= 100 && status < 600 ? status / 100 : 0;
+
+        Method method = handlerMethod.getMethod();
+        timer(timers(method), method, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static boolean isAppEndpoint(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getName().startsWith(APP_PACKAGE);
+    }
+
+    private Timer[] timers(Method method) {
+        Timer[] endpointTimers = timers.get(method);
+        return endpointTimers != null ? endpointTimers : timers.computeIfAbsent(method, key -> new Timer[OUTCOMES.length]);
+    }
+
+    // Si dos hilos registran a la vez el mismo timer, Micrometer devuelve el mismo a los dos.
+    private Timer timer(Timer[] endpointTimers, Method method, int outcome) {
+        Timer timer = endpointTimers[outcome];
+        if (timer == null) {
+            timer = Timer.builder(METRIC)
+                    .description("Books API requests by controller method and outcome")
+                    .tag("controller", method.getDeclaringClass().getSimpleName())
+                    .tag("endpoint", method.getName())
+                    .tag("outcome", OUTCOMES[outcome])
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(100_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry);
+            endpointTimers[outcome] = timer;
+        }
+        return timer;
+    }
+}
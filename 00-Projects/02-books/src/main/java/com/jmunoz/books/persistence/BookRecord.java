@@ -0,0 +1,90 @@
+package com.jmunoz.books.persistence;
+
+import com.jmunoz.books.entity.Book;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+// Registro del write-ahead log y de los snapshots.
+// Un PUT guarda el book completo (con su versión) y un DELETE solo el id. Así aplicar
+// un registro dos veces deja el mismo resultado, algo que necesitan los snapshots
+// (ver BookWriteAheadLog).
+// Los textos se guardan como su longitud en bytes UTF-8 (un int, -1 si son null) seguida de
+// los bytes, en lugar de con writeUTF(), que no admite null ni más de 64KB.
+record BookRecord(Type type, long id, Book book) {
+
+    enum Type {
+        PUT,
+        DELETE
+    }
+
+    static BookRecord put(Book book) {
+        return new BookRecord(Type.PUT, book.getId(), book);
+    }
+
+    static BookRecord delete(long id) {
+        return new BookRecord(Type.DELETE, id, null);
+    }
+
+    byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            write(output);
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        }
+        return bytes.toByteArray();
+    }
+
+    void write(DataOutput output) throws IOException {
+        output.writeByte(type.ordinal());
+        output.writeLong(id);
+        if (type == Type.PUT) {
+            output.writeLong(book.getVersion());
+            writeString(book.getTitle(), output);
+            writeString(book.getAuthor(), output);
+            writeString(book.getCategory(), output);
+            output.writeInt(book.getRating());
+        }
+    }
+
+    static BookRecord read(DataInput input) throws IOException {
+        Type type = Type.values()[input.readByte()];
+        long id = input.readLong();
+        if (type == Type.DELETE) {
+            return delete(id);
+        }
+
+        long version = input.readLong();
+        Book book = new Book(id, readString(input), readString(input), readString(input), input.readInt());
+        book.setVersion(version);
+        return put(book);
+    }
+
+    private static void writeString(String value, DataOutput output) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInput input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
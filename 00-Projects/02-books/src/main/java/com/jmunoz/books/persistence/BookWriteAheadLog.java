@@ -0,0 +1,446 @@
+package com.jmunoz.books.persistence;
+
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.store.BookChange;
+import com.jmunoz.books.store.BookStore;
+import com.jmunoz.books.store.BookWriteLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// Persistencia del catálogo sin base de datos. Se activa con books.persistence.enabled=true.
+//
+// - Write-ahead log: cada escritura de BookStore se añade a un segmento memory-mapped
+//   (WalSegment, ficheros wal-N.log) antes de hacerse visible. Un lote de
+//   BookStore.applyBatch() va entero en un solo registro del segmento, con un solo CRC, así
+//   que después de una caída se recupera el lote completo o nada.
+// - Group commit: un único hilo (flusher) hace el fsync. Mientras hace uno, las escrituras
+//   siguientes se acumulan y el siguiente fsync las cubre todas. Cada petición espera en
+//   sync() a que su escritura sea durable antes de responder.
+// - Snapshots: al arrancar, periódicamente (books.persistence.snapshot-interval) y al parar,
+//   se escribe el catálogo completo (snapshot-N.bin) y se borran los segmentos anteriores.
+//   Así el arranque solo lee el último snapshot y los segmentos posteriores, y su duración
+//   depende del tamaño del catálogo y no de toda la historia de escrituras.
+//
+// El snapshot N se escribe sin bloquear el catálogo, así que puede incluir escrituras
+// posteriores al inicio del segmento N. No es un problema: los registros guardan el estado
+// completo del book (ver BookRecord), así que al volver a aplicarlos el resultado es el mismo.
+//
+// La versión del catálogo (la de los ETag) también se recupera: el snapshot guarda la que
+// había al empezar el segmento N, y cada registro posterior la aumenta en 1, igual que cada
+// escritura en BookStore. Si el snapshot ya incluía alguna de esas escrituras la versión
+// recuperada es algo mayor, pero nunca menor que la que había antes de parar.
+@Component
+@ConditionalOnProperty(name = "books.persistence.enabled", havingValue = "true")
+public class BookWriteAheadLog implements BookWriteLog {
+
+    private static final String WAL_PREFIX = "wal-";
+    private static final String WAL_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int SNAPSHOT_MAGIC = 0x424F4F4B;
+
+    private static final Logger logger = LoggerFactory.getLogger(BookWriteAheadLog.class);
+
+    private final BookStore bookStore;
+    private final Path directory;
+    private final int segmentSize;
+    private final Duration snapshotInterval;
+
+    // lock protege el segmento actual y los contadores. appended y durable cuentan bytes
+    // escritos en el log desde el arranque: una escritura es durable cuando durable la alcanza.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private WalSegment segment;
+    private long appended;
+    private long durable;
+    private boolean closed;
+
+    private Thread flusher;
+    private ScheduledExecutorService snapshotScheduler;
+
+    @Autowired
+    public BookWriteAheadLog(BookStore theBookStore,
+                             @Value("${books.persistence.dir:data/books}") Path theDirectory,
+                             @Value("${books.persistence.segment-size:64MB}") DataSize theSegmentSize,
+                             @Value("${books.persistence.snapshot-interval:5m}") Duration theSnapshotInterval) {
+        this.bookStore = theBookStore;
+        this.directory = theDirectory;
+        this.segmentSize = Math.toIntExact(theSegmentSize.toBytes());
+        this.snapshotInterval = theSnapshotInterval;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(directory);
+        recover();
+
+        bookStore.setWriteLog(this);
+
+        flusher = Thread.ofPlatform().name("books-wal-flusher").daemon().start(this::flushLoop);
+
+        // Compactamos lo que acabamos de leer, para que el próximo arranque solo lea un snapshot.
+        snapshot();
+
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("books-wal-snapshot").daemon().factory());
+        snapshotScheduler.scheduleWithFixedDelay(this::scheduledSnapshot,
+                snapshotInterval.toMillis(), snapshotInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        snapshotScheduler.shutdown();
+        snapshotScheduler.awaitTermination(1, TimeUnit.MINUTES);
+
+        snapshot();
+        bookStore.setWriteLog(BookWriteLog.NONE);
+
+        lock.lock();
+        try {
+            closed = true;
+            pending.signalAll();
+            synced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        flusher.join();
+        segment.force();
+    }
+
+    @Override
+    public void append(Book previous, Book current) {
+        append(record(previous, current).toBytes());
+    }
+
+    // Si el lote no cabe en un segmento vacío se lanza IllegalStateException sin escribir nada.
+    @Override
+    public void appendAll(List<BookChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 * changes.size());
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            for (BookChange change : changes) {
+                record(change.previous(), change.current()).write(output);
+            }
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        }
+        append(bytes.toByteArray());
+    }
+
+    private static BookRecord record(Book previous, Book current) {
+        return current == null ? BookRecord.delete(previous.getId()) : BookRecord.put(current);
+    }
+
+    private void append(byte[] payload) {
+        lock.lock();
+        try {
+            checkOpen();
+
+            int size = segment.append(payload);
+            if (size < 0) {
+                roll();
+                size = segment.append(payload);
+                if (size < 0) {
+                    throw new IllegalStateException("Record larger than a WAL segment");
+                }
+            }
+
+            appended += size;
+            pending.signal();
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void sync() {
+        lock.lock();
+        try {
+            long target = appended;
+            while (durable < target) {
+                checkOpen();
+                synced.await();
+            }
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the WAL", exc);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // La recarga del catálogo no pasa por el log, así que se guarda enseguida en un snapshot.
+    // Si la app se para antes de terminarlo, al arrancar se recupera el catálogo anterior
+    // a la recarga (con las escrituras posteriores que ya estuvieran en el log).
+    @Override
+    public void replaced() {
+        snapshot();
+    }
+
+    // Hilo del group commit: espera a que haya escrituras pendientes, hace fsync del segmento
+    // sin tener el lock (así las escrituras siguientes no esperan) y despierta a los que
+    // esperan en sync().
+    private void flushLoop() {
+        while (true) {
+            WalSegment toForce;
+            long target;
+
+            lock.lock();
+            try {
+                while (durable == appended && !closed) {
+                    pending.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                toForce = segment;
+                target = appended;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                toForce.force();
+            } catch (RuntimeException exc) {
+                // Si el fsync falla no podemos garantizar la durabilidad: cerramos el log
+                // y las escrituras siguientes fallan.
+                lock.lock();
+                try {
+                    closed = true;
+                    synced.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                throw exc;
+            }
+
+            lock.lock();
+            try {
+                durable = Math.max(durable, target);
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Cambia a un segmento nuevo. Se llama con lock. Antes hace fsync del actual,
+    // así que todo lo escrito hasta ahora ya es durable.
+    private void roll() throws IOException {
+        segment.force();
+        durable = appended;
+        synced.signalAll();
+
+        long generation = segment.generation() + 1;
+        segment = WalSegment.create(walFile(generation), generation, segmentSize);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Write-ahead log is closed");
+        }
+    }
+
+    // Carga el último snapshot, aplica los segmentos posteriores y abre un segmento nuevo.
+    private void recover() throws IOException {
+        List<Long> snapshots = generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        List<Long> segments = generations(WAL_PREFIX, WAL_SUFFIX);
+
+        Map<Long, Book> books = new HashMap<>();
+        long[] lastIdAndVersion = new long[2];
+        long snapshotGeneration = -1;
+
+        if (!snapshots.isEmpty()) {
+            snapshotGeneration = snapshots.getLast();
+            lastIdAndVersion = readSnapshot(snapshotFile(snapshotGeneration), books);
+        }
+        long lastId = lastIdAndVersion[0];
+        long version = lastIdAndVersion[1];
+
+        for (long generation : segments) {
+            if (generation < snapshotGeneration) {
+                continue;
+            }
+            for (BookRecord record : WalSegment.read(walFile(generation))) {
+                if (record.type() == BookRecord.Type.PUT) {
+                    books.put(record.id(), record.book());
+                } else {
+                    books.remove(record.id());
+                }
+                lastId = Math.max(lastId, record.id());
+                version++;
+            }
+        }
+
+        if (!snapshots.isEmpty() || !segments.isEmpty()) {
+            bookStore.load(books.values(), lastId, version);
+        }
+
+        long lastGeneration = Math.max(
+                snapshots.isEmpty() ? 0 : snapshots.getLast(),
+                segments.isEmpty() ? 0 : segments.getLast());
+        segment = WalSegment.create(walFile(lastGeneration + 1), lastGeneration + 1, segmentSize);
+    }
+
+    // Si un snapshot falla, el log sigue siendo válido (solo crece) y se reintenta en el
+    // siguiente. Capturamos la excepción porque si no el scheduler dejaría de ejecutarlo.
+    private void scheduledSnapshot() {
+        try {
+            snapshot();
+        } catch (RuntimeException exc) {
+            logger.error("Book snapshot failed", exc);
+        }
+    }
+
+    // Escribe un snapshot del catálogo y borra los segmentos y snapshots anteriores.
+    // El cambio de segmento se hace sin ninguna escritura en curso (runExclusive), para que
+    // todas las escrituras del segmento anterior ya estén en el catálogo que recorremos.
+    private synchronized void snapshot() {
+        long[] generation = new long[1];
+        long[] version = new long[1];
+        bookStore.runExclusive(() -> {
+            lock.lock();
+            try {
+                roll();
+                generation[0] = segment.generation();
+                version[0] = bookStore.version();
+            } catch (IOException exc) {
+                throw new UncheckedIOException(exc);
+            } finally {
+                lock.unlock();
+            }
+        });
+
+        try {
+            Path target = snapshotFile(generation[0]);
+            Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+            writeSnapshot(temporary, version[0]);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+
+            for (long old : generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+                if (old < generation[0]) {
+                    Files.deleteIfExists(snapshotFile(old));
+                }
+            }
+            for (long old : generations(WAL_PREFIX, WAL_SUFFIX)) {
+                if (old < generation[0]) {
+                    Files.deleteIfExists(walFile(old));
+                }
+            }
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        }
+    }
+
+    // Formato: magic, un 1 antes de cada book, un 0 al final, el último id repartido,
+    // la versión del catálogo al empezar el segmento y el CRC32.
+    private void writeSnapshot(Path file, long version) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream fileOutput = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            CheckedOutputStream checked = new CheckedOutputStream(fileOutput, new CRC32());
+            DataOutputStream output = new DataOutputStream(checked);
+
+            output.writeInt(SNAPSHOT_MAGIC);
+            try (Stream<Book> books = bookStore.streamAll()) {
+                for (Book book : (Iterable<Book>) books::iterator) {
+                    output.writeBoolean(true);
+                    BookRecord.put(book).write(output);
+                }
+            }
+            output.writeBoolean(false);
+            output.writeLong(bookStore.lastId());
+            output.writeLong(version);
+            output.flush();
+
+            new DataOutputStream(fileOutput).writeInt((int) checked.getChecksum().getValue());
+            fileOutput.flush();
+            channel.force(true);
+        }
+    }
+
+    // Devuelve el último id repartido y la versión del catálogo.
+    private static long[] readSnapshot(Path file, Map<Long, Book> books) throws IOException {
+        try (InputStream fileInput = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            CheckedInputStream checked = new CheckedInputStream(fileInput, new CRC32());
+            DataInputStream input = new DataInputStream(checked);
+
+            if (input.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a book snapshot - " + file);
+            }
+            while (input.readBoolean()) {
+                BookRecord record = BookRecord.read(input);
+                books.put(record.id(), record.book());
+            }
+            long lastId = input.readLong();
+            long version = input.readLong();
+
+            int expected = (int) checked.getChecksum().getValue();
+            if (new DataInputStream(fileInput).readInt() != expected) {
+                throw new IOException("Corrupted book snapshot - " + file);
+            }
+            return new long[] {lastId, version};
+        }
+    }
+
+    // Generaciones de los ficheros con ese prefijo y sufijo, ordenadas.
+    private List<Long> generations(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .map(name -> Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path walFile(long generation) {
+        return directory.resolve(WAL_PREFIX + "%020d".formatted(generation) + WAL_SUFFIX);
+    }
+
+    private Path snapshotFile(long generation) {
+        return directory.resolve(SNAPSHOT_PREFIX + "%020d".formatted(generation) + SNAPSHOT_SUFFIX);
+    }
+}
@@ -0,0 +1,99 @@
+package com.jmunoz.books.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Un fichero del write-ahead log, de tamaño fijo y proyectado en memoria (memory-mapped).
+// Cada registro es: longitud (int), CRC32 (int) y los bytes de uno o varios BookRecord
+// (varios si es un lote, que así se escribe y se valida con el CRC de una vez).
+// El fichero se crea lleno de ceros, así que una longitud 0 marca el final. Un registro a medio
+// escribir (la app se paró durante la escritura) no pasa el CRC y también marca el final.
+// No es thread-safe: BookWriteAheadLog serializa las escrituras.
+class WalSegment {
+
+    private static final int HEADER_SIZE = 8;
+
+    private final long generation;
+    private final MappedByteBuffer buffer;
+    private int position;
+
+    private WalSegment(long generation, MappedByteBuffer buffer) {
+        this.generation = generation;
+        this.buffer = buffer;
+    }
+
+    static WalSegment create(Path file, long generation, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // El mapeo sigue siendo válido después de cerrar el channel.
+            return new WalSegment(generation, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    // Registros válidos de un segmento existente, en orden.
+    static List<BookRecord> read(Path file) throws IOException {
+        List<BookRecord> records = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32 crc = new CRC32();
+
+            while (buffer.remaining() >= HEADER_SIZE) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+                while (input.available() > 0) {
+                    records.add(BookRecord.read(input));
+                }
+            }
+        }
+        return records;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    // Escribe el registro si cabe y devuelve cuántos bytes ocupa, o -1 si no cabe.
+    int append(byte[] payload) {
+        int size = HEADER_SIZE + payload.length;
+        if (position + size > buffer.capacity()) {
+            return -1;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        // Primero los datos y el CRC, y la longitud al final: hasta entonces el registro
+        // se lee como final del segmento.
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.put(position + HEADER_SIZE, payload);
+        buffer.putInt(position, payload.length);
+        position += size;
+        return size;
+    }
+
+    // fsync de los registros escritos hasta ahora.
+    void force() {
+        buffer.force();
+    }
+}
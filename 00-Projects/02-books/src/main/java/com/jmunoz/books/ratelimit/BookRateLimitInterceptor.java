@@ -0,0 +1,89 @@
+package com.jmunoz.books.ratelimit;
+
+import com.jmunoz.books.exception.BookRateLimitException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Aplica BookRateLimiter antes de cada petición a un controller.
+// El cliente es la cabecera X-API-Key si es una de las claves repartidas (books.rate-limit.api-keys)
+// y, si no, la IP. Una clave que no se ha repartido no cuenta, porque si no bastaría con
+// cambiarla en cada petición para saltarse el límite. El coste de cada endpoint
+// sale de su @RequestCost, que se lee una sola vez por método.
+// Si no quedan tokens se lanza BookRateLimitException, que BookExceptionHandler convierte
+// en un 429 Too Many Requests con la cabecera Retry-After.
+@Component
+@ConditionalOnProperty(name = "books.rate-limit.enabled", havingValue = "true")
+public class BookRateLimitInterceptor implements HandlerInterceptor {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    private static final Cost DEFAULT_COST = new Cost(1, new String[0], 1);
+
+    private record Cost(int value, String[] filters, int filteredCost) {
+
+        int of(HttpServletRequest request) {
+            for (String filter : filters) {
+                if (request.getParameter(filter) != null) {
+                    return filteredCost;
+                }
+            }
+            return value;
+        }
+    }
+
+    private final BookRateLimiter bookRateLimiter;
+
+    // Claves repartidas a los clientes, separadas por comas en books.rate-limit.api-keys.
+    private final Set<String> apiKeys;
+
+    private final Map<Method, Cost> costs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookRateLimitInterceptor(BookRateLimiter theBookRateLimiter,
+                                    @Value("${books.rate-limit.api-keys:}") String theApiKeys) {
+        this.bookRateLimiter = theBookRateLimiter;
+        this.apiKeys = Arrays.stream(theApiKeys.split(","))
+                .map(String::trim)
+                .filter(apiKey -> !apiKey.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        int cost = costs.computeIfAbsent(handlerMethod.getMethod(), BookRateLimitInterceptor::cost).of(request);
+        long wait = bookRateLimiter.tryAcquire(client(request), cost);
+        if (wait > 0) {
+            throw new BookRateLimitException(wait);
+        }
+        return true;
+    }
+
+    private String client(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return apiKey != null && apiKeys.contains(apiKey) ? apiKey : request.getRemoteAddr();
+    }
+
+    private static Cost cost(Method method) {
+        RequestCost requestCost = method.getAnnotation(RequestCost.class);
+        return requestCost == null
+                ? DEFAULT_COST
+                : new Cost(requestCost.value(), requestCost.filters(), requestCost.filteredCost());
+    }
+}
@@ -0,0 +1,99 @@
+package com.jmunoz.books.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Limitador de peticiones por cliente (token bucket), sin locks.
+// Cada cliente recupera requests-per-second tokens por segundo y puede acumular hasta burst.
+// Se implementa como GCRA (generic cell rate algorithm): en lugar de guardar los tokens
+// y la hora de la última recarga, cada cliente guarda un único long, el instante (System.nanoTime())
+// en el que su bucket volvería a estar lleno. Gastar c tokens es adelantar ese instante
+// c * interval, y la petición se rechaza si quedaría más de burst * interval por delante de ahora.
+// Así cada petición es un get() del mapa y un compareAndSet() de un AtomicLong.
+@Component
+@ConditionalOnProperty(name = "books.rate-limit.enabled", havingValue = "true")
+public class BookRateLimiter {
+
+    // Nanosegundos en recuperar un token.
+    private final long interval;
+
+    // Nanosegundos que el instante de bucket lleno puede ir por delante de ahora (burst tokens).
+    private final long tolerance;
+
+    // Clientes con los que se limpian los buckets llenos (ver sweep()).
+    private final int maxClients;
+
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    // Instante a partir del cual se puede volver a limpiar el mapa. Si hay más de maxClients
+    // clientes activos la limpieza no elimina nada, así que como mucho se intenta una vez por segundo.
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+
+    @Autowired
+    public BookRateLimiter(@Value("${books.rate-limit.requests-per-second:100}") long requestsPerSecond,
+                           @Value("${books.rate-limit.burst:200}") long burst,
+                           @Value("${books.rate-limit.max-clients:100000}") int theMaxClients) {
+        if (requestsPerSecond < 1 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit requests-per-second and burst must be at least 1");
+        }
+
+        this.interval = 1_000_000_000L / requestsPerSecond;
+        this.tolerance = interval * burst;
+        this.maxClients = theMaxClients;
+    }
+
+    // Gasta cost tokens del cliente. Devuelve 0 si la petición se acepta, o los nanosegundos
+    // que el cliente tiene que esperar para que se acepte. Un coste mayor que burst
+    // cuenta como burst, para que la petición se pueda aceptar alguna vez.
+    public long tryAcquire(String client, int cost) {
+        long now = System.nanoTime();
+        long increment = Math.min(interval * cost, tolerance);
+
+        AtomicLong bucket = buckets.get(client);
+        if (bucket == null) {
+            bucket = newBucket(client, now);
+        }
+
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + increment;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong newBucket(String client, long now) {
+        AtomicLong bucket = new AtomicLong(now);
+        AtomicLong previous = buckets.putIfAbsent(client, bucket);
+        if (previous != null) {
+            return previous;
+        }
+
+        long sweepAt = nextSweep.get();
+        if (now - sweepAt >= 0 && buckets.size() > maxClients
+                && nextSweep.compareAndSet(sweepAt, now + TimeUnit.SECONDS.toNanos(1))) {
+            sweep(now);
+        }
+        return bucket;
+    }
+
+    // Elimina los buckets que ya están llenos: son iguales que uno nuevo, así que el cliente
+    // no nota nada. Solo se hace al añadir un cliente cuando hay más de maxClients, para que
+    // el mapa no crezca con cada IP que pasa una vez. Si otro hilo está gastando tokens de un
+    // bucket que se elimina en ese momento, esa petición no cuenta, como mucho una por cliente.
+    private void sweep(long now) {
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+    }
+}
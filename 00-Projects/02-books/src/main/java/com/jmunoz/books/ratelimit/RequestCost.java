@@ -0,0 +1,23 @@
+package com.jmunoz.books.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Tokens que gasta cada petición a un endpoint en el limitador de peticiones (ver BookRateLimiter).
+// Los endpoints sin esta anotación cuestan 1 token.
+// Si la petición trae alguno de los query parameters de filters (por ejemplo category),
+// cuesta filteredCost en lugar de value: una lista filtrada es mucho más barata que el catálogo entero.
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestCost {
+
+    int value();
+
+    String[] filters() default {};
+
+    int filteredCost() default 1;
+}
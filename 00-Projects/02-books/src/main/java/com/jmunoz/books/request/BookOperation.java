@@ -0,0 +1,60 @@
+package com.jmunoz.books.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+// Una operación del endpoint POST /api/books/batch.
+// - create: necesita book
+// - update: necesita id y book
+// - delete: necesita id
+// Las validaciones de BookRequest se aplican gracias a @Valid (o las mismas escritas a mano,
+// ver BookBatchValidator).
+public class BookOperation {
+
+    public enum Type {
+        @JsonProperty("create") CREATE,
+        @JsonProperty("update") UPDATE,
+        @JsonProperty("delete") DELETE
+    }
+
+    @NotNull(message = "Operation type is mandatory")
+    private Type type;
+
+    @Min(value = 1, message = "Id must be at least 1")
+    private Long id;
+
+    @Valid
+    private BookRequest book;
+
+    public BookOperation(Type type, Long id, BookRequest book) {
+        this.type = type;
+        this.id = id;
+        this.book = book;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public BookRequest getBook() {
+        return book;
+    }
+
+    public void setBook(BookRequest book) {
+        this.book = book;
+    }
+}
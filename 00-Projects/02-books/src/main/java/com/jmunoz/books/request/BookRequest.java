@@ -2,16 +2,20 @@ package com.jmunoz.books.request;
 
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 public class BookRequest {
 
+    @NotNull(message = "Title is mandatory")
     @Size(min = 1, max = 30, message = "Title is between 1 and 30 characters")
     private String title;
 
+    @NotNull(message = "Author is mandatory")
     @Size(min = 1, max = 40, message = "Author is between 1 and 40 characters")
     private String author;
 
+    @NotNull(message = "Category is mandatory")
     @Size(min = 1, max = 30, message = "Category is between 1 and 30 characters")
     private String category;
 
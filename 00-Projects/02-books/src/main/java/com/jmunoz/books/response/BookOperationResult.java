@@ -0,0 +1,52 @@
+package com.jmunoz.books.response;
+
+import com.jmunoz.books.request.BookOperation;
+
+// Resultado de una operación de POST /api/books/batch, en el mismo orden que la petición.
+// status es el código HTTP que habría devuelto la operación suelta (201, 204 o 404).
+public class BookOperationResult {
+
+    private BookOperation.Type type;
+    private long id;
+    private int status;
+    private String message;
+
+    public BookOperationResult(BookOperation.Type type, long id, int status, String message) {
+        this.type = type;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public BookOperation.Type getType() {
+        return type;
+    }
+
+    public void setType(BookOperation.Type type) {
+        this.type = type;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,34 @@
+package com.jmunoz.books.response;
+
+import com.jmunoz.books.entity.Book;
+
+import java.util.List;
+
+// Una página del listado de books.
+// next es el cursor para pedir la siguiente página, o null si no hay más.
+public class BookPage {
+
+    private List<Book> items;
+    private String next;
+
+    public BookPage(List<Book> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<Book> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Book> items) {
+        this.items = items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,40 @@
+package com.jmunoz.books.response;
+
+// Estadísticas de rating de un grupo de books (todo el catálogo, una categoría o un autor).
+// histogram[0] es el número de books con rating 1, ..., histogram[4] los de rating 5.
+public class BookRatingStats {
+
+    private long count;
+    private double average;
+    private long[] histogram;
+
+    public BookRatingStats(long count, double average, long[] histogram) {
+        this.count = count;
+        this.average = average;
+        this.histogram = histogram;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getAverage() {
+        return average;
+    }
+
+    public void setAverage(double average) {
+        this.average = average;
+    }
+
+    public long[] getHistogram() {
+        return histogram;
+    }
+
+    public void setHistogram(long[] histogram) {
+        this.histogram = histogram;
+    }
+}
@@ -0,0 +1,30 @@
+package com.jmunoz.books.response;
+
+// Resultado de POST /api/books/reload: número de books cargados y lo que tardó la recarga
+// (leer el fichero y construir la nueva generación del catálogo) en milisegundos.
+public class BookReloadResult {
+
+    private int books;
+    private long millis;
+
+    public BookReloadResult(int books, long millis) {
+        this.books = books;
+        this.millis = millis;
+    }
+
+    public int getBooks() {
+        return books;
+    }
+
+    public void setBooks(int books) {
+        this.books = books;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public void setMillis(long millis) {
+        this.millis = millis;
+    }
+}
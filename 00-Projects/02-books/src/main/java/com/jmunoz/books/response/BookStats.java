@@ -0,0 +1,33 @@
+package com.jmunoz.books.response;
+
+import java.util.Map;
+
+// Estadísticas de rating de todo el catálogo y de cada categoría.
+// Las claves de categories están en minúsculas. Las de cada autor no se incluyen, porque
+// crecen con el catálogo: se piden de una en una con /api/books/stats?author=.
+public class BookStats {
+
+    private BookRatingStats total;
+    private Map<String, BookRatingStats> categories;
+
+    public BookStats(BookRatingStats total, Map<String, BookRatingStats> categories) {
+        this.total = total;
+        this.categories = categories;
+    }
+
+    public BookRatingStats getTotal() {
+        return total;
+    }
+
+    public void setTotal(BookRatingStats total) {
+        this.total = total;
+    }
+
+    public Map<String, BookRatingStats> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(Map<String, BookRatingStats> categories) {
+        this.categories = categories;
+    }
+}
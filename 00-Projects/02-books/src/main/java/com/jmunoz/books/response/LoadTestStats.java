@@ -0,0 +1,31 @@
+package com.jmunoz.books.response;
+
+// Estadísticas de GET /api/loadtest/stats.
+// maxInFlight es el máximo de peticiones lentas que se han atendido a la vez.
+// virtualThreads indica si las peticiones se atienden en virtual threads.
+public class LoadTestStats {
+
+    private int maxInFlight;
+    private boolean virtualThreads;
+
+    public LoadTestStats(int maxInFlight, boolean virtualThreads) {
+        this.maxInFlight = maxInFlight;
+        this.virtualThreads = virtualThreads;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+}
@@ -0,0 +1,77 @@
+package com.jmunoz.books.seed;
+
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.response.BookReloadResult;
+import com.jmunoz.books.store.BookStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Carga el catálogo desde el fichero CSV books.seed.file (ver BookCsvReader).
+// Al arrancar, si el fichero está configurado y el catálogo no se ha recuperado ya del disco
+// (books.persistence.enabled=true), sustituye a los books iniciales del controller.
+// Con reload() (POST /api/books/reload) se vuelve a leer el fichero en caliente: BookStore
+// construye la nueva generación aparte y la cambia de golpe, así que las peticiones que
+// llegan mientras tanto siguen viendo el catálogo anterior, completo.
+@Component
+public class BookCatalogSeeder implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookCatalogSeeder.class);
+
+    private final BookStore bookStore;
+    private final String file;
+
+    // Dos recargas a la vez solo gastarían el doble de memoria para acabar con el mismo catálogo.
+    private final Lock lock = new ReentrantLock();
+
+    @Autowired
+    public BookCatalogSeeder(BookStore theBookStore, @Value("${books.seed.file:}") String theFile) {
+        this.bookStore = theBookStore;
+        this.file = theFile;
+    }
+
+    // Se ejecuta cuando ya se han creado todos los beans, así que BookWriteAheadLog
+    // ya ha recuperado el catálogo si estaba en disco.
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!file.isBlank() && !bookStore.isLoaded()) {
+            reload();
+        }
+    }
+
+    // Lanza IllegalStateException si no hay fichero configurado, UncheckedIOException si
+    // no se puede leer e IllegalArgumentException si alguna línea no es un book válido.
+    // En cualquiera de estos casos el catálogo no cambia.
+    public BookReloadResult reload() {
+        if (file.isBlank()) {
+            throw new IllegalStateException("No seed file configured (books.seed.file)");
+        }
+
+        lock.lock();
+        try {
+            long start = System.nanoTime();
+            List<Book> books = BookCsvReader.read(Path.of(file));
+            long read = System.nanoTime();
+            int loaded = bookStore.reload(books);
+            long end = System.nanoTime();
+
+            logger.info("Loaded {} books from {} (read {} ms, indexed {} ms)", loaded, file,
+                    (read - start) / 1_000_000, (end - read) / 1_000_000);
+            return new BookReloadResult(loaded, (end - start) / 1_000_000);
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.jmunoz.books.seed;
+
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.validation.BookRequestValidator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Lee un fichero CSV de books (UTF-8) en paralelo.
+// Formato: una línea por book con id,title,author,category,rating. Los campos pueden ir
+// entre comillas dobles (para que contengan comas) y "" es una comilla dentro de ellos,
+// pero ningún campo puede contener saltos de línea. La primera línea puede ser una cabecera
+// (si no empieza por un número se ignora). Las líneas vacías se ignoran.
+// Cada book tiene que cumplir las mismas validaciones que BookRequest (BookRequestValidator),
+// el id tiene que ser positivo y no se puede repetir. Si no, se rechaza todo el fichero
+// indicando el número de línea.
+//
+// El fichero se divide en trozos, uno o varios por procesador, que empiezan y terminan
+// en un salto de línea. Cada trozo se mapea en memoria (memory-mapped, sin copiarlo a un buffer
+// del heap) y se procesa en paralelo. Como cada trozo se mapea por separado, el fichero puede
+// ser mayor de 2 GB (el límite de un MappedByteBuffer).
+public final class BookCsvReader {
+
+    // Tamaño máximo de cada trozo mapeado.
+    static final long MAX_CHUNK_SIZE = 256L * 1024 * 1024;
+
+    // Por debajo de este tamaño no compensa repartir el fichero.
+    static final long MIN_CHUNK_SIZE = 1024 * 1024;
+
+    private static final int FIELDS = 5;
+
+    // Books de un trozo y la posición en el fichero de la línea de cada uno.
+    private record Chunk(List<Book> books, long[] positions) {
+    }
+
+    // Línea no válida. Se lanza con su posición en bytes, que read() convierte en el número
+    // de línea (contar las líneas de cada trozo solo haría falta si hay un error).
+    private static final class InvalidLineException extends RuntimeException {
+
+        private final long position;
+
+        private InvalidLineException(long position, String message) {
+            super(message, null, false, false);
+            this.position = position;
+        }
+    }
+
+    private BookCsvReader() {
+    }
+
+    // Lanza IllegalArgumentException si alguna línea no es un book válido o repite un id.
+    public static List<Book> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = chunkBounds(channel, size);
+
+            try {
+                List<Chunk> chunks = IntStream.range(0, bounds.length - 1)
+                        .parallel()
+                        .mapToObj(i -> readChunk(channel, bounds[i], bounds[i + 1]))
+                        .toList();
+
+                int count = chunks.stream().mapToInt(chunk -> chunk.books().size()).sum();
+                List<Book> books = new ArrayList<>(count);
+                long[] positions = new long[count];
+                for (Chunk chunk : chunks) {
+                    System.arraycopy(chunk.positions(), 0, positions, books.size(), chunk.books().size());
+                    books.addAll(chunk.books());
+                }
+
+                checkDuplicates(books, positions);
+                return books;
+            } catch (InvalidLineException exc) {
+                throw new IllegalArgumentException("Invalid book at line " + lineNumber(channel, exc.position)
+                        + " - " + exc.getMessage());
+            } catch (UncheckedIOException exc) {
+                throw exc.getCause();
+            }
+        }
+    }
+
+    // Antes los books con el mismo id se descartaban sin avisar al construir el catálogo.
+    // Se ordenan los ids (en paralelo) y solo si hay alguno repetido se busca dónde está.
+    private static void checkDuplicates(List<Book> books, long[] positions) {
+        long[] ids = books.stream().mapToLong(Book::getId).toArray();
+        Arrays.parallelSort(ids);
+
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i] == ids[i - 1]) {
+                long id = ids[i];
+                int first = -1;
+                for (int j = 0; j < books.size(); j++) {
+                    if (books.get(j).getId() == id) {
+                        if (first >= 0) {
+                            throw new InvalidLineException(positions[j], "duplicate id " + id);
+                        }
+                        first = j;
+                    }
+                }
+            }
+        }
+    }
+
+    // Número de línea (desde 1) de la posición: los saltos de línea anteriores más uno.
+    private static long lineNumber(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long line = 1;
+        long offset = 0;
+        while (offset < position) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), position - offset));
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    line++;
+                }
+            }
+            offset += read;
+        }
+        return line;
+    }
+
+    // Posiciones donde empieza cada trozo, más el tamaño del fichero al final.
+    // Cada una se mueve hasta justo después del siguiente salto de línea.
+    private static long[] chunkBounds(FileChannel channel, long size) throws IOException {
+        long bySize = (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE;
+        long byCores = Math.min(ForkJoinPool.getCommonPoolParallelism() * 4L, size / MIN_CHUNK_SIZE);
+        int chunks = (int) Math.max(1, Math.max(bySize, byCores));
+
+        long[] bounds = new long[chunks + 1];
+        bounds[chunks] = size;
+        for (int i = 1; i < chunks; i++) {
+            bounds[i] = Math.max(bounds[i - 1], nextLine(channel, size * i / chunks, size));
+        }
+        return bounds;
+    }
+
+    // Posición siguiente al primer salto de línea desde position (o size si no hay más).
+    private static long nextLine(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static Chunk readChunk(FileChannel channel, long start, long end) {
+        if (start == end) {
+            return new Chunk(List.of(), new long[0]);
+        }
+
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        }
+
+        LineParser parser = new LineParser(buffer, start);
+        List<Book> books = new ArrayList<>((int) ((end - start) / 48));
+        long[] positions = new long[16];
+        int limit = buffer.limit();
+        int lineStart = 0;
+
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            int contentEnd = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            boolean header = start == 0 && lineStart == 0 && !isDigit(buffer, lineStart, contentEnd);
+            if (contentEnd > lineStart && !header) {
+                if (books.size() == positions.length) {
+                    positions = Arrays.copyOf(positions, positions.length * 2);
+                }
+                positions[books.size()] = start + lineStart;
+                books.add(parser.parse(lineStart, contentEnd));
+            }
+
+            lineStart = lineEnd + 1;
+        }
+        return new Chunk(books, positions);
+    }
+
+    private static boolean isDigit(ByteBuffer buffer, int start, int end) {
+        int first = start < end && buffer.get(start) == '"' ? start + 1 : start;
+        return first < end && buffer.get(first) >= '0' && buffer.get(first) <= '9';
+    }
+
+    // Convierte una línea en un Book. Reutiliza el mismo array para copiar cada campo
+    // y la misma lista para las validaciones.
+    private static final class LineParser {
+
+        private final ByteBuffer buffer;
+        private final long offset;
+        private final String[] fields = new String[FIELDS];
+        private final List<String> violations = new ArrayList<>();
+        private byte[] scratch = new byte[256];
+
+        LineParser(ByteBuffer buffer, long offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+
+        Book parse(int start, int end) {
+            int position = start;
+            for (int field = 0; field < FIELDS; field++) {
+                if (position > end || (field > 0 && buffer.get(position - 1) != ',')) {
+                    throw invalid(start);
+                }
+                position = readField(position, end, field) + 1;
+            }
+            if (position <= end) {
+                throw invalid(start);
+            }
+
+            long id;
+            int rating;
+            try {
+                id = Long.parseLong(fields[0]);
+                rating = Integer.parseInt(fields[4]);
+            } catch (NumberFormatException exc) {
+                throw invalid(start);
+            }
+
+            if (id < 1) {
+                violations.add("id: Id must be at least 1");
+            }
+            BookRequestValidator.validate(fields[1], fields[2], fields[3], rating, "", violations);
+            if (!violations.isEmpty()) {
+                String message = String.join(", ", violations);
+                violations.clear();
+                throw new InvalidLineException(offset + start, message);
+            }
+
+            return new Book(id, fields[1], fields[2], fields[3], rating);
+        }
+
+        // Lee el campo que empieza en start y devuelve la posición de la coma que lo termina
+        // (o end si es el último).
+        private int readField(int start, int end, int field) {
+            int length = 0;
+            int position = start;
+
+            if (position < end && buffer.get(position) == '"') {
+                position++;
+                while (true) {
+                    if (position >= end) {
+                        throw invalid(start);
+                    }
+                    byte value = buffer.get(position++);
+                    if (value == '"') {
+                        if (position < end && buffer.get(position) == '"') {
+                            position++;
+                        } else {
+                            break;
+                        }
+                    }
+                    length = append(length, value);
+                }
+                if (position < end && buffer.get(position) != ',') {
+                    throw invalid(start);
+                }
+            } else {
+                while (position < end && buffer.get(position) != ',') {
+                    length = append(length, buffer.get(position++));
+                }
+            }
+
+            fields[field] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            return position;
+        }
+
+        private int append(int length, byte value) {
+            if (length == scratch.length) {
+                scratch = Arrays.copyOf(scratch, length * 2);
+            }
+            scratch[length] = value;
+            return length + 1;
+        }
+
+        private InvalidLineException invalid(int lineStart) {
+            return new InvalidLineException(offset + lineStart, "expected id,title,author,category,rating");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.jmunoz.books.shard;
+
+import com.jmunoz.books.store.BookIdOwner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Configuración del sharding (books.shard.enabled=true): las instancias de la app
+// (books.shard.nodes, sus URLs) se reparten los ids con un anillo de consistent hashing,
+// y esta instancia es books.shard.self. BookStore solo guarda los ids de esta instancia
+// (BookIdOwner) y BookShardRouter envía cada petición a la instancia que corresponde.
+@Component
+@ConditionalOnProperty(name = "books.shard.enabled", havingValue = "true")
+public class BookShard implements BookIdOwner {
+
+    private final String self;
+    private final List<String> nodes;
+    private final BookShardRing ring;
+
+    @Autowired
+    public BookShard(@Value("${books.shard.self}") String theSelf,
+                     @Value("${books.shard.nodes}") String theNodes,
+                     @Value("${books.shard.virtual-nodes:128}") int virtualNodes) {
+        this.self = normalize(theSelf);
+        this.nodes = Arrays.stream(theNodes.split(","))
+                .map(String::trim)
+                .filter(node -> !node.isEmpty())
+                .map(BookShard::normalize)
+                .distinct()
+                .toList();
+
+        if (!nodes.contains(self)) {
+            throw new IllegalArgumentException("books.shard.self must be one of books.shard.nodes: " + self);
+        }
+
+        this.ring = new BookShardRing(nodes, virtualNodes);
+    }
+
+    // URL base de la instancia dueña del id, por ejemplo http://localhost:8081
+    public String owner(long id) {
+        return ring.owner(id);
+    }
+
+    @Override
+    public boolean owns(long id) {
+        return self.equals(ring.owner(id));
+    }
+
+    public boolean isSelf(String node) {
+        return self.equals(node);
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    // Sin la barra final, para poder añadirle la ruta de la petición.
+    private static String normalize(String node) {
+        return node.endsWith("/") ? node.substring(0, node.length() - 1) : node;
+    }
+}
@@ -0,0 +1,70 @@
+package com.jmunoz.books.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// Anillo de consistent hashing: cada nodo ocupa virtualNodes puntos del anillo (hash de
+// "nodo#i") y cada id pertenece al primer punto que hay en el anillo a partir del hash del id.
+// Con varios puntos por nodo cada uno se queda con una parte parecida de los ids y, al añadir
+// o quitar un nodo, solo cambian de dueño los ids de ese nodo (más o menos 1/N del total).
+// Es inmutable: los puntos están en un array ordenado y buscar el dueño es una búsqueda binaria.
+final class BookShardRing {
+
+    private final long[] points;
+    private final String[] owners;
+
+    private record Point(long hash, String node) {
+    }
+
+    BookShardRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("Shard ring needs at least one node and one virtual node");
+        }
+
+        List<Point> ring = new ArrayList<>(nodes.size() * virtualNodes);
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.add(new Point(hash(node + "#" + i), node));
+            }
+        }
+        ring.sort(Comparator.comparingLong(Point::hash).thenComparing(Point::node));
+
+        points = new long[ring.size()];
+        owners = new String[ring.size()];
+        for (int i = 0; i < ring.size(); i++) {
+            points[i] = ring.get(i).hash();
+            owners[i] = ring.get(i).node();
+        }
+    }
+
+    String owner(long id) {
+        int index = Arrays.binarySearch(points, mix(id));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    // FNV-1a de 64 bits de los bytes UTF-8, mezclado con mix() para repartirlo por todo el anillo.
+    private static long hash(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : text.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // Finalizador de MurmurHash3: ids consecutivos acaban en puntos muy distintos del anillo.
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
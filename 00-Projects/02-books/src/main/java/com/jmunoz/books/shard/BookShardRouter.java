@@ -0,0 +1,323 @@
+package com.jmunoz.books.shard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jmunoz.books.exception.BookErrorResponse;
+import com.jmunoz.books.ratelimit.BookRateLimitInterceptor;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Capa de routing del sharding (ver BookShard). Cualquier instancia puede recibir cualquier
+// petición de /api/books:
+// - GET, PUT y DELETE /api/books/{id} se reenvían a la instancia dueña del id, si no es esta,
+//   y se devuelve su respuesta tal cual (status, ETag y JSON).
+// - GET /api/books (con o sin category), /api/books/search y /api/books/stats se piden a todas
+//   las instancias a la vez (scatter-gather) y se juntan sus respuestas en JSON.
+// - POST /api/books se atiende aquí: BookStore solo reparte ids de esta instancia.
+// - El resto (la paginación, la exportación, los lotes y la recarga) solo ve los books
+//   de la instancia que recibe la petición.
+// Las peticiones entre instancias llevan la cabecera X-Books-Shard con el secreto compartido
+// (books.shard.secret), para que la instancia que las recibe las atienda ella misma en lugar
+// de volver a reenviarlas. Con otro valor la cabecera no cuenta y la petición se reparte
+// como cualquier otra, así que un cliente no puede saltarse el routing.
+@Component
+@ConditionalOnProperty(name = "books.shard.enabled", havingValue = "true")
+public class BookShardRouter extends OncePerRequestFilter {
+
+    public static final String SHARD_HEADER = "X-Books-Shard";
+
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private static final String BOOKS_PATH = "/api/books";
+    private static final String SEARCH_PATH = BOOKS_PATH + "/search";
+    private static final String STATS_PATH = BOOKS_PATH + "/stats";
+
+    // Como mucho 18 dígitos, para que siempre quepa en un long. Los demás ids
+    // no válidos se atienden aquí y devuelven el 400 de siempre.
+    private static final Pattern BOOK_PATH = Pattern.compile(BOOKS_PATH + "/(\\d{1,18})");
+
+    private static final List<String> FORWARDED_REQUEST_HEADERS = List.of(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ACCEPT, HttpHeaders.IF_MATCH, HttpHeaders.IF_NONE_MATCH, BookRateLimitInterceptor.API_KEY_HEADER);
+    private static final List<String> FORWARDED_RESPONSE_HEADERS = List.of(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ETAG, HttpHeaders.RETRY_AFTER);
+
+    // Mayor rating primero y luego menor id, igual que el desempate de la búsqueda.
+    private static final Comparator<JsonNode> BY_ID = Comparator.comparingLong(book -> book.get("id").asLong());
+    private static final Comparator<JsonNode> BY_RATING = Comparator.<JsonNode>comparingInt(book -> book.get("rating").asInt())
+            .reversed()
+            .thenComparing(BY_ID);
+
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+
+    private final BookShard bookShard;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+    private final String secret;
+    private final byte[] secretBytes;
+
+    @Autowired
+    public BookShardRouter(BookShard theBookShard, ObjectMapper theObjectMapper,
+                           @Value("${books.shard.timeout:5s}") Duration theTimeout,
+                           @Value("${books.shard.secret:}") String theSecret) {
+        if (theSecret.isBlank()) {
+            throw new IllegalArgumentException("Shard secret (books.shard.secret) must be set when sharding is enabled");
+        }
+
+        this.secret = theSecret;
+        this.secretBytes = theSecret.getBytes(StandardCharsets.UTF_8);
+        this.bookShard = theBookShard;
+        this.objectMapper = theObjectMapper;
+        this.timeout = theTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(theTimeout)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return isFromShard(request) || !request.getRequestURI().startsWith(BOOKS_PATH);
+    }
+
+    // MessageDigest.isEqual() tarda lo mismo acierte o no, para no dar pistas del secreto.
+    private boolean isFromShard(HttpServletRequest request) {
+        String header = request.getHeader(SHARD_HEADER);
+        return header != null && MessageDigest.isEqual(secretBytes, header.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+
+        Matcher matcher = BOOK_PATH.matcher(path);
+        if (matcher.matches()) {
+            String owner = bookShard.owner(Long.parseLong(matcher.group(1)));
+            if (!bookShard.isSelf(owner)) {
+                forward(owner, request, response);
+                return;
+            }
+        } else if ("GET".equals(request.getMethod())) {
+            if (BOOKS_PATH.equals(path) && request.getParameter("limit") == null) {
+                scatterGather(request, response, this::mergeLists);
+                return;
+            }
+            if (SEARCH_PATH.equals(path)) {
+                scatterGather(request, response, results -> mergeSearch(results, searchLimit(request)));
+                return;
+            }
+            if (STATS_PATH.equals(path)) {
+                scatterGather(request, response, this::mergeStats);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void forward(String owner, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        HttpRequest.Builder builder = shardRequest(owner, request)
+                .method(request.getMethod(), body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+
+        for (String header : FORWARDED_REQUEST_HEADERS) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                builder.header(header, value);
+            }
+        }
+
+        try {
+            copy(httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray()), response);
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            unavailable(owner, response);
+        } catch (IOException exc) {
+            unavailable(owner, response);
+        }
+    }
+
+    // Si alguna instancia no responde 200 OK (por ejemplo, un 400 por un parámetro no válido
+    // o un 429) se devuelve su respuesta, igual que si la petición hubiera ido solo a ella.
+    private void scatterGather(HttpServletRequest request, HttpServletResponse response,
+                               Function<List<JsonNode>, JsonNode> merge) throws IOException {
+        List<String> nodes = bookShard.nodes();
+        List<CompletableFuture<HttpResponse<byte[]>>> futures = new ArrayList<>(nodes.size());
+        for (String node : nodes) {
+            HttpRequest shardRequest = shardRequest(node, request)
+                    .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                    .GET()
+                    .build();
+            futures.add(httpClient.sendAsync(shardRequest, HttpResponse.BodyHandlers.ofByteArray()));
+        }
+
+        List<JsonNode> results = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            HttpResponse<byte[]> shardResponse;
+            try {
+                shardResponse = futures.get(i).get();
+            } catch (InterruptedException exc) {
+                Thread.currentThread().interrupt();
+                unavailable(nodes.get(i), response);
+                return;
+            } catch (ExecutionException exc) {
+                unavailable(nodes.get(i), response);
+                return;
+            }
+
+            if (shardResponse.statusCode() != HttpStatus.OK.value()) {
+                copy(shardResponse, response);
+                return;
+            }
+            results.add(objectMapper.readTree(shardResponse.body()));
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), merge.apply(results));
+    }
+
+    // La misma ruta y query en otra instancia. La IP del cliente va en X-Forwarded-For, para que
+    // el limitador de peticiones de esa instancia la use (server.forward-headers-strategy=native,
+    // y solo desde las IPs de server.tomcat.remoteip.internal-proxies).
+    private HttpRequest.Builder shardRequest(String node, HttpServletRequest request) {
+        String query = request.getQueryString();
+        URI uri = URI.create(node + request.getRequestURI() + (query == null ? "" : "?" + query));
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header(SHARD_HEADER, secret)
+                .header(FORWARDED_FOR_HEADER, request.getRemoteAddr());
+
+        String apiKey = request.getHeader(BookRateLimitInterceptor.API_KEY_HEADER);
+        if (apiKey != null) {
+            builder.header(BookRateLimitInterceptor.API_KEY_HEADER, apiKey);
+        }
+        return builder;
+    }
+
+    private static void copy(HttpResponse<byte[]> shardResponse, HttpServletResponse response) throws IOException {
+        response.setStatus(shardResponse.statusCode());
+        for (String header : FORWARDED_RESPONSE_HEADERS) {
+            shardResponse.headers().firstValue(header).ifPresent(value -> response.setHeader(header, value));
+        }
+        response.getOutputStream().write(shardResponse.body());
+    }
+
+    private void unavailable(String node, HttpServletResponse response) throws IOException {
+        BookErrorResponse error = new BookErrorResponse(HttpStatus.BAD_GATEWAY.value(),
+                "Shard unavailable - " + node, System.currentTimeMillis());
+
+        response.setStatus(HttpStatus.BAD_GATEWAY.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    // Cada instancia devuelve sus books ordenados por id; el resultado también.
+    private JsonNode mergeLists(List<JsonNode> lists) {
+        List<JsonNode> books = new ArrayList<>();
+        lists.forEach(list -> list.forEach(books::add));
+        books.sort(BY_ID);
+        return objectMapper.createArrayNode().addAll(books);
+    }
+
+    // Cada instancia devuelve sus limit mejores resultados. El número de términos encontrados
+    // no forma parte de la respuesta, así que se juntan por rating y luego por id: con
+    // búsquedas de una palabra (o books que las contienen todas) el orden es el mismo que sin sharding.
+    private JsonNode mergeSearch(List<JsonNode> lists, int limit) {
+        List<JsonNode> books = new ArrayList<>();
+        lists.forEach(list -> list.forEach(books::add));
+        books.sort(BY_RATING);
+        return objectMapper.createArrayNode().addAll(books.subList(0, Math.min(limit, books.size())));
+    }
+
+    // Las instancias ya han validado limit (si no, habrían devuelto 400).
+    private static int searchLimit(HttpServletRequest request) {
+        String limit = request.getParameter("limit");
+        return limit == null ? DEFAULT_SEARCH_LIMIT : Integer.parseInt(limit);
+    }
+
+    // /stats devuelve total y categories; /stats?category= y /stats?author=,
+    // solo las estadísticas de ese grupo.
+    private JsonNode mergeStats(List<JsonNode> results) {
+        if (!results.getFirst().has("total")) {
+            return mergeRatingStats(results);
+        }
+
+        ObjectNode stats = objectMapper.createObjectNode();
+        stats.set("total", mergeRatingStats(results.stream().map(result -> result.get("total")).toList()));
+        stats.set("categories", mergeGroups(results, "categories"));
+        return stats;
+    }
+
+    private ObjectNode mergeGroups(List<JsonNode> results, String field) {
+        Map<String, List<JsonNode>> groups = new TreeMap<>();
+        for (JsonNode result : results) {
+            result.get(field).fields().forEachRemaining(entry ->
+                    groups.computeIfAbsent(entry.getKey(), key -> new ArrayList<>()).add(entry.getValue()));
+        }
+
+        ObjectNode merged = objectMapper.createObjectNode();
+        groups.forEach((key, stats) -> merged.set(key, mergeRatingStats(stats)));
+        return merged;
+    }
+
+    // Suma los histogramas y los contadores. La media es la media de las medias
+    // ponderada por el número de books de cada instancia.
+    private ObjectNode mergeRatingStats(List<JsonNode> stats) {
+        long count = 0;
+        double sum = 0;
+        long[] histogram = new long[stats.getFirst().get("histogram").size()];
+        for (JsonNode node : stats) {
+            long nodeCount = node.get("count").asLong();
+            count += nodeCount;
+            sum += node.get("average").asDouble() * nodeCount;
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += node.get("histogram").get(i).asLong();
+            }
+        }
+
+        ObjectNode merged = objectMapper.createObjectNode();
+        merged.put("count", count);
+        merged.put("average", count == 0 ? 0 : sum / count);
+        ArrayNode mergedHistogram = merged.putArray("histogram");
+        for (long value : histogram) {
+            mergedHistogram.add(value);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,90 @@
+package com.jmunoz.books.store;
+
+import com.jmunoz.books.entity.Book;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Una generación del catálogo: los books por id y todos sus índices internos.
+// BookStore trabaja siempre sobre la generación actual y, para sustituir todo el catálogo
+// (load()), construye otra aparte y la cambia de golpe. Así una lectura ve siempre
+// una generación completa, nunca media carga.
+class BookCatalog {
+
+    final ConcurrentMap<Long, Book> books;
+    final CategoryIndex categoryIndex = new CategoryIndex();
+    final SearchIndex searchIndex;
+    final RatingStats ratingStats = new RatingStats();
+    final Map<BookSort, SortIndex> sortIndexes = new EnumMap<>(BookSort.class);
+    private final List<BookIndex> indexes;
+
+    BookCatalog() {
+        this(new ConcurrentHashMap<>(), new SearchIndex());
+    }
+
+    private BookCatalog(ConcurrentMap<Long, Book> books, SearchIndex searchIndex) {
+        this.books = books;
+        this.searchIndex = searchIndex;
+
+        for (BookSort sort : BookSort.values()) {
+            sortIndexes.put(sort, new SortIndex(sort));
+        }
+
+        List<BookIndex> allIndexes = new ArrayList<>(List.of(categoryIndex, searchIndex, ratingStats));
+        allIndexes.addAll(sortIndexes.values());
+        indexes = List.copyOf(allIndexes);
+    }
+
+    // Nueva generación con books, construida en paralelo. Como nadie más la ve todavía,
+    // primero se rellena el mapa, después se construye el índice de búsqueda de golpe
+    // (SearchIndex.of()) y por último el resto de índices a la vez, cada uno también en
+    // paralelo (todos son estructuras concurrentes). El índice de categorías agrupa antes
+    // los ids (addAll()), porque si no todos los hilos competirían por las mismas categorías.
+    // Los ids no deberían repetirse: si se repiten se queda uno cualquiera de esos books.
+    static BookCatalog of(Collection<Book> books) {
+        ConcurrentMap<Long, Book> byId = new ConcurrentHashMap<>(Math.max(16, books.size()));
+        books.parallelStream().forEach(book -> byId.put(book.getId(), book));
+
+        Collection<Book> unique = byId.values();
+        BookCatalog catalog = new BookCatalog(byId, SearchIndex.of(unique));
+
+        List<Runnable> builds = new ArrayList<>();
+        builds.add(() -> catalog.categoryIndex.addAll(unique));
+        for (BookIndex index : List.<BookIndex>of(catalog.ratingStats, catalog.sortIndexes.get(BookSort.ID),
+                catalog.sortIndexes.get(BookSort.TITLE), catalog.sortIndexes.get(BookSort.RATING))) {
+            builds.add(() -> unique.parallelStream().forEach(book -> index.update(null, book)));
+        }
+        builds.parallelStream().forEach(Runnable::run);
+
+        return catalog;
+    }
+
+    // Mayor id de la generación (0 si está vacía), sin recorrer los books: es el último
+    // del índice ordenado por id.
+    long lastId() {
+        NavigableSet<SortKey> ids = sortIndexes.get(BookSort.ID).keys();
+        return ids.isEmpty() ? 0 : ids.last().id();
+    }
+
+    // Prepara la actualización de los índices de la generación y de externalIndexes (los de
+    // BookStore) y devuelve el cambio que queda por aplicar. Todos los índices calculan sus
+    // claves antes de que ninguno cambie (BookIndex.prepare()), así que si alguno falla
+    // con este book no queda ningún índice a medias.
+    Runnable reindex(Book previous, Book current, List<BookIndex> externalIndexes) {
+        List<Runnable> updates = new ArrayList<>(indexes.size() + externalIndexes.size());
+        for (BookIndex index : indexes) {
+            updates.add(index.prepare(previous, current));
+        }
+        for (BookIndex index : externalIndexes) {
+            updates.add(index.prepare(previous, current));
+        }
+
+        return () -> updates.forEach(Runnable::run);
+    }
+}
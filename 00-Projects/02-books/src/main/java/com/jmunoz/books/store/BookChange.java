@@ -0,0 +1,8 @@
+package com.jmunoz.books.store;
+
+import com.jmunoz.books.entity.Book;
+
+// Una escritura ya preparada de un lote, tal como se registra en el BookWriteLog.
+// Igual que en BookIndex, previous es null al crear y current es null al eliminar.
+public record BookChange(Book previous, Book current) {
+}
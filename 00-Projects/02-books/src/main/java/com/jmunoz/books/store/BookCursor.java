@@ -0,0 +1,35 @@
+package com.jmunoz.books.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Cursor opaco del listado paginado.
+// Guarda el orden y la clave del último book devuelto, codificados en Base64 URL.
+// La siguiente página continúa justo después de esa clave.
+final class BookCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private BookCursor() {
+    }
+
+    static String encode(BookSort sort, boolean descending, SortKey last) {
+        String value = sort.name() + SEPARATOR + (descending ? "desc" : "asc") + SEPARATOR
+                + last.number() + SEPARATOR + last.id() + SEPARATOR + last.text();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Lanza IllegalArgumentException si el cursor no es válido o se generó con otro orden.
+    static SortKey decode(String cursor, BookSort sort, boolean descending) {
+        String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = value.split("\\" + SEPARATOR, 5);
+
+        if (parts.length != 5
+                || !parts[0].equals(sort.name())
+                || !parts[1].equals(descending ? "desc" : "asc")) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        return new SortKey(parts[4], Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+    }
+}
@@ -0,0 +1,11 @@
+package com.jmunoz.books.store;
+
+// Indica qué ids guarda esta instancia de la app. Sin sharding son todos (ALL);
+// con sharding solo los de su parte del anillo (ver BookShard).
+@FunctionalInterface
+public interface BookIdOwner {
+
+    BookIdOwner ALL = id -> true;
+
+    boolean owns(long id);
+}
@@ -0,0 +1,31 @@
+package com.jmunoz.books.store;
+
+import com.jmunoz.books.entity.Book;
+
+import java.util.Collection;
+
+// Índice secundario que BookStore mantiene al día en cada escritura.
+// BookStore lo llama mientras tiene bloqueado el id del book, por lo que
+// las llamadas para un mismo id nunca se solapan.
+public interface BookIndex {
+
+    // previous es null cuando se crea el book y current es null cuando se elimina.
+    void update(Book previous, Book current);
+
+    // Lo mismo que update(), en dos pasos: prepare() calcula todo lo que necesita de los books
+    // (por ejemplo, sus claves) sin cambiar el índice, y el Runnable devuelto aplica el cambio.
+    // BookStore prepara todos los índices antes de aplicar ninguno, así que si un book no vale
+    // para alguno, la escritura falla sin dejar ningún índice a medias. Aplicar no debe fallar.
+    // Por defecto no se calcula nada por adelantado.
+    default Runnable prepare(Book previous, Book current) {
+        return () -> update(previous, current);
+    }
+
+    // BookStore sustituyó todo el catálogo (load() o reload()): previous son los books
+    // anteriores y current los nuevos. Se llama sin ninguna escritura en curso.
+    // Por defecto se quitan los anteriores y se añaden los nuevos uno a uno.
+    default void replace(Collection<Book> previous, Collection<Book> current) {
+        previous.forEach(book -> update(book, null));
+        current.forEach(book -> update(null, book));
+    }
+}
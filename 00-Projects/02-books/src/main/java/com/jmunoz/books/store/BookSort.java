@@ -0,0 +1,27 @@
+package com.jmunoz.books.store;
+
+import com.jmunoz.books.entity.Book;
+
+import java.util.Locale;
+
+// Claves de ordenación soportadas por el listado paginado de books.
+public enum BookSort {
+
+    ID,
+    TITLE,
+    RATING;
+
+    // Lanza IllegalArgumentException si el valor no es un orden válido.
+    public static BookSort from(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    // Un book sin título (BookRequest no lo permite) se ordena como si el título estuviera vacío.
+    SortKey key(Book book) {
+        return switch (this) {
+            case ID -> new SortKey("", book.getId(), book.getId());
+            case TITLE -> new SortKey(book.getTitle() == null ? "" : book.getTitle().toLowerCase(Locale.ROOT), 0, book.getId());
+            case RATING -> new SortKey("", book.getRating(), book.getId());
+        };
+    }
+}
@@ -0,0 +1,527 @@
+package com.jmunoz.books.store;
+
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.exception.BookPreconditionFailedException;
+import com.jmunoz.books.response.BookPage;
+import com.jmunoz.books.response.BookRatingStats;
+import com.jmunoz.books.response.BookStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Almacén en memoria de books, compartido por todas las peticiones.
+// Sustituye al ArrayList del controller:
+// - Un ConcurrentHashMap indexado por id, para que get/update/delete sean O(1)
+//   en lugar de recorrer toda la lista.
+// - El mapa y sus índices forman una generación (BookCatalog). Para sustituir todo el catálogo
+//   se construye una generación nueva aparte y se cambia de golpe (copy-on-write), así que las
+//   lecturas nunca esperan ni ven una carga a medias.
+// - Un AtomicLong como secuencia de ids, para que dos POST concurrentes nunca
+//   obtengan el mismo id (antes se calculaba a partir de books.getLast()).
+// - Índices secundarios (BookIndex) que se actualizan dentro del compute() del
+//   mapa, es decir, con el id bloqueado, para que nunca se desincronicen. Primero se
+//   preparan todos y luego se registra y se aplica la escritura: si algo falla antes,
+//   ni el mapa ni los índices ni el BookWriteLog cambian.
+// - Índices ordenados (SortIndex) para paginar con cursor sin saltar elementos.
+// - Un ReadWriteLock para los lotes: cada escritura suelta toma el lock de lectura
+//   (compartido, no se bloquean entre ellas) y un lote toma una sola vez el de escritura,
+//   así que ninguna otra escritura se intercala con el lote. Las lecturas no usan el lock.
+// - Un índice invertido (SearchIndex) del título y el autor para la búsqueda de texto.
+// - Estadísticas de rating (RatingStats) por categoría y por autor, que se mantienen al escribir.
+// - Versiones para los ETag: cada book tiene su versión y el catálogo tiene una versión
+//   global que aumenta con cada escritura.
+// - Un BookWriteLog opcional (por ejemplo, el write-ahead log en disco) que registra cada
+//   escritura antes de aplicarla y al que se espera antes de devolver el control.
+// - Un BookIdOwner opcional: con sharding cada instancia solo reparte y guarda sus ids.
+@Component
+public class BookStore {
+
+    // Versión esperada que acepta cualquier versión actual (If-Match: *).
+    public static final long ANY_VERSION = -1;
+
+    // Generación actual. Cada lectura la lee una sola vez, así que trabaja siempre con una
+    // generación completa aunque load() la cambie mientras tanto. Las escrituras la leen con
+    // el lock de lectura, y load() la cambia con el de escritura.
+    private volatile BookCatalog catalog = new BookCatalog();
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    // Ids que guarda esta instancia. Con sharding (books.shard.enabled=true) nextId() se salta
+    // los ids de las demás instancias, y seed() y reload() descartan sus books.
+    private volatile BookIdOwner idOwner = BookIdOwner.ALL;
+
+    // Índices externos (addIndex), que se conservan al cambiar de generación.
+    private final List<BookIndex> indexes = new CopyOnWriteArrayList<>();
+
+    private final ReadWriteLock batchLock = new ReentrantReadWriteLock();
+
+    private volatile BookWriteLog writeLog = BookWriteLog.NONE;
+
+    // true si el catálogo se cargó con load() (por ejemplo, desde disco), y entonces
+    // seed() ya no añade los books iniciales.
+    private volatile boolean loaded;
+
+    // Sustituye todo el catálogo por books, conservando sus ids y versiones, sin registrarlos
+    // en el BookWriteLog (por ejemplo, al recuperar el catálogo del disco). lastId es el último
+    // id repartido, para no volver a repartirlo aunque ese book ya no exista, y version la
+    // versión del catálogo guardada, para que siga aumentando a partir de ella.
+    public void load(Collection<Book> newBooks, long lastId, long version) {
+        BookCatalog newCatalog = BookCatalog.of(newBooks);
+        swap(newCatalog, Math.max(lastId, newCatalog.lastId()), version);
+    }
+
+    // Sustituye todo el catálogo por books (por ejemplo, al recargarlo desde un fichero).
+    // La nueva generación se construye en paralelo y sin ningún lock; solo el cambio final
+    // espera a que terminen las escrituras en curso, y las lecturas no esperan nunca.
+    // Todos los books reciben como versión una mayor que la del catálogo y que la de cualquier
+    // book actual (las de los books recuperados del disco pueden ser mayores que la del
+    // catálogo), así que ningún ETag anterior coincide. El catálogo pasa a tener esa versión.
+    // Al terminar se avisa al BookWriteLog (replaced()), porque la carga no se registra en él.
+    // Con sharding solo se guardan los books de esta instancia. Devuelve cuántos se guardaron.
+    public int reload(Collection<Book> newBooks) {
+        BookIdOwner owner = idOwner;
+        if (owner != BookIdOwner.ALL) {
+            newBooks = newBooks.parallelStream()
+                    .filter(book -> owner.owns(book.getId()))
+                    .toList();
+        }
+
+        BookCatalog newCatalog = BookCatalog.of(newBooks);
+
+        // La versión se calcula sin ninguna escritura en curso, para que ninguna llegue a ella
+        // antes del cambio. Las versiones no forman parte de los índices, así que se pueden
+        // asignar después de construir la nueva generación.
+        Lock lock = batchLock.writeLock();
+        lock.lock();
+        try {
+            long currentVersion = catalog.books.values().parallelStream()
+                    .mapToLong(Book::getVersion)
+                    .max()
+                    .orElse(0);
+            long version = Math.max(catalogVersion.get(), currentVersion) + 1;
+            newCatalog.books.values().parallelStream().forEach(book -> book.setVersion(version));
+
+            swap(newCatalog, newCatalog.lastId(), version);
+        } finally {
+            lock.unlock();
+        }
+
+        writeLog.replaced();
+        return newCatalog.books.size();
+    }
+
+    // Cambia de generación sin ninguna escritura en curso. Los índices externos reciben
+    // los books de la generación anterior y los de la nueva (BookIndex.replace()).
+    // lastId ya debe incluir el mayor id de la nueva generación. La versión del catálogo
+    // aumenta y es al menos minVersion.
+    private void swap(BookCatalog newCatalog, long lastId, long minVersion) {
+        Lock lock = batchLock.writeLock();
+        lock.lock();
+        try {
+            BookCatalog previous = catalog;
+            catalog = newCatalog;
+
+            for (BookIndex index : indexes) {
+                index.replace(previous.books.values(), newCatalog.books.values());
+            }
+
+            sequence.accumulateAndGet(lastId, Math::max);
+            catalogVersion.updateAndGet(version -> Math.max(version + 1, minVersion));
+            loaded = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Inyección por setter y opcional: Spring la hace justo después de crear BookStore,
+    // antes de pasarlo a nadie, así que ningún book se guarda antes de saber qué ids son suyos.
+    @Autowired(required = false)
+    public void setIdOwner(BookIdOwner theIdOwner) {
+        this.idOwner = theIdOwner;
+    }
+
+    // Indica si el catálogo se ha sustituido entero con load() o reload()
+    // (por ejemplo, si se recuperó del disco al arrancar).
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Guarda los books iniciales, salvo que el catálogo ya se haya cargado con load().
+    public void seed(Collection<Book> initialBooks) {
+        if (!loaded) {
+            BookIdOwner owner = idOwner;
+            initialBooks.stream()
+                    .filter(book -> owner.owns(book.getId()))
+                    .forEach(this::save);
+        }
+    }
+
+    // A partir de ahora cada escritura se registra en writeLog. Se toma el lock de escritura
+    // para que ninguna escritura en curso quede sin registrar.
+    public void setWriteLog(BookWriteLog writeLog) {
+        runExclusive(() -> this.writeLog = writeLog);
+    }
+
+    // Ejecuta action sin ninguna escritura en curso (las escrituras nuevas esperan a que termine).
+    // Las lecturas no se bloquean.
+    public void runExclusive(Runnable action) {
+        Lock lock = batchLock.writeLock();
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long lastId() {
+        return sequence.get();
+    }
+
+    // Registra un índice externo (por ejemplo, la caché de JSON). Se toma el lock de
+    // escritura para que ninguna escritura se pierda mientras se le pasan los books actuales.
+    public void addIndex(BookIndex index) {
+        Lock lock = batchLock.writeLock();
+        lock.lock();
+        try {
+            catalog.books.values().forEach(book -> index.update(null, book));
+            indexes.add(index);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Devuelve los books ordenados por id, igual que la antigua lista.
+    public List<Book> findAll() {
+        return streamAll().toList();
+    }
+
+    // Recorre los books ordenados por id sin copiarlos a una lista, para poder
+    // escribirlos uno a uno (por ejemplo, en la exportación NDJSON).
+    public Stream<Book> streamAll() {
+        BookCatalog catalog = this.catalog;
+        return catalog.sortIndexes.get(BookSort.ID).keys().stream()
+                .map(key -> catalog.books.get(key.id()))
+                .filter(Objects::nonNull);
+    }
+
+    public Optional<Book> findById(long id) {
+        return Optional.ofNullable(catalog.books.get(id));
+    }
+
+    // Books de una categoría, sin distinguir mayúsculas y minúsculas, ordenados por id.
+    // Se comprueba de nuevo la categoría por si el book cambió mientras leíamos el índice.
+    public List<Book> findByCategory(String category) {
+        BookCatalog catalog = this.catalog;
+        return catalog.categoryIndex.ids(category).stream()
+                .map(catalog.books::get)
+                .filter(Objects::nonNull)
+                .filter(book -> category.equalsIgnoreCase(book.getCategory()))
+                .toList();
+    }
+
+    // Búsqueda de texto en el título y el autor. Cada término busca las palabras que empiezan
+    // por él. Devuelve los limit mejores books: más términos encontrados primero, luego mayor
+    // rating y luego menor id.
+    public List<Book> search(String query, int limit) {
+        BookCatalog catalog = this.catalog;
+        return catalog.searchIndex.search(query, limit, catalog.books::get);
+    }
+
+    // Estadísticas de rating de todo el catálogo y de cada categoría. Las de los autores no,
+    // porque hay tantos como books: se piden de uno en uno con authorStats().
+    public BookStats stats() {
+        RatingStats ratingStats = catalog.ratingStats;
+        return new BookStats(ratingStats.total(), ratingStats.categories());
+    }
+
+    // Categorías (en minúsculas) que tienen algún book, ordenadas.
+    public Set<String> categories() {
+        return catalog.ratingStats.categories().keySet();
+    }
+
+    // Estadísticas de rating de una categoría, sin distinguir mayúsculas y minúsculas. O(1).
+    public BookRatingStats categoryStats(String category) {
+        return catalog.ratingStats.category(category);
+    }
+
+    // Estadísticas de rating de un autor, sin distinguir mayúsculas y minúsculas. O(1).
+    public BookRatingStats authorStats(String author) {
+        return catalog.ratingStats.author(author);
+    }
+
+    // Página de books ordenada por sort, que empieza justo después del cursor
+    // (o al principio si cursor es null). Si se indica categoría solo se puede ordenar por id,
+    // porque se recorre el índice de categorías, que ya está ordenado por id.
+    // Lanza IllegalArgumentException si el cursor o la combinación de parámetros no son válidos.
+    public BookPage findPage(String category, BookSort sort, boolean descending, int limit, String cursor) {
+        SortKey after = cursor == null ? null : BookCursor.decode(cursor, sort, descending);
+        BookCatalog catalog = this.catalog;
+
+        Stream<SortKey> candidates;
+        if (category == null) {
+            NavigableSet<SortKey> keys = catalog.sortIndexes.get(sort).keys();
+            keys = descending ? keys.descendingSet() : keys;
+            candidates = (after == null ? keys : keys.tailSet(after, false)).stream();
+        } else if (sort == BookSort.ID) {
+            NavigableSet<Long> ids = catalog.categoryIndex.ids(category);
+            ids = descending ? ids.descendingSet() : ids;
+            candidates = (after == null ? ids : ids.tailSet(after.id(), false)).stream()
+                    .map(id -> new SortKey("", id, id));
+        } else {
+            throw new IllegalArgumentException("Category pages can only be sorted by id");
+        }
+
+        List<Book> items = new ArrayList<>(limit);
+        SortKey last = null;
+        boolean more = false;
+
+        // Se descartan las claves de books eliminados o modificados mientras
+        // recorremos el índice. Se lee un book de más para saber si hay otra página.
+        Iterator<SortKey> iterator = candidates.iterator();
+        while (iterator.hasNext()) {
+            SortKey key = iterator.next();
+            Book book = catalog.books.get(key.id());
+            if (book == null
+                    || !sort.key(book).equals(key)
+                    || (category != null && !category.equalsIgnoreCase(book.getCategory()))) {
+                continue;
+            }
+
+            if (items.size() == limit) {
+                more = true;
+                break;
+            }
+
+            items.add(book);
+            last = key;
+        }
+
+        return new BookPage(items, more ? BookCursor.encode(sort, descending, last) : null);
+    }
+
+    // Versión del catálogo. Aumenta después de aplicar cada escritura, así que si se lee
+    // antes que los books, los books nunca son más antiguos que la versión.
+    public long version() {
+        return catalogVersion.get();
+    }
+
+    // Con sharding se salta los ids de las demás instancias: como cada id tiene un único
+    // dueño, dos instancias nunca reparten el mismo id aunque cada una tenga su secuencia.
+    public long nextId() {
+        BookIdOwner owner = idOwner;
+        long id;
+        do {
+            id = sequence.incrementAndGet();
+        } while (!owner.owns(id));
+        return id;
+    }
+
+    // Guarda un book con un id ya asignado (por ejemplo, los books iniciales).
+    // La secuencia avanza si hace falta para no volver a repartir ese id.
+    public void save(Book book) {
+        Lock lock = batchLock.readLock();
+        lock.lock();
+        try {
+            doSave(book);
+        } finally {
+            lock.unlock();
+        }
+        writeLog.sync();
+    }
+
+    // Sustituye el book solo si existe. Devuelve vacío si no existe.
+    public Optional<Book> update(Book book) {
+        return update(book, ANY_VERSION);
+    }
+
+    // Igual que update(book), pero solo si la versión actual es expectedVersion.
+    // Lanza BookPreconditionFailedException si no coincide.
+    public Optional<Book> update(Book book, long expectedVersion) {
+        Lock lock = batchLock.readLock();
+        lock.lock();
+        Book updated;
+        try {
+            updated = doUpdate(book, expectedVersion);
+        } finally {
+            lock.unlock();
+        }
+        writeLog.sync();
+        return Optional.ofNullable(updated);
+    }
+
+    // Elimina el book y lo devuelve. Devuelve vacío si no existe.
+    public Optional<Book> delete(long id) {
+        return delete(id, ANY_VERSION);
+    }
+
+    // Igual que delete(id), pero solo si la versión actual es expectedVersion.
+    // Lanza BookPreconditionFailedException si no coincide.
+    public Optional<Book> delete(long id, long expectedVersion) {
+        Lock lock = batchLock.readLock();
+        lock.lock();
+        Book deleted;
+        try {
+            deleted = doDelete(id, expectedVersion);
+        } finally {
+            lock.unlock();
+        }
+        writeLog.sync();
+        return Optional.ofNullable(deleted);
+    }
+
+    // Aplica un lote de escrituras en orden, tomando el lock una sola vez. El lote se aplica
+    // entero o no se aplica nada, en tres pasos:
+    // 1. Se preparan todas las escrituras sin cambiar nada: la versión de cada book y la
+    //    actualización de todos los índices (BookCatalog.reindex()). Las escrituras del lote
+    //    sobre un mismo id ven el resultado de las anteriores (pending).
+    // 2. Se registran todas a la vez en el BookWriteLog (appendAll()).
+    // 3. Se aplican al mapa y a los índices, algo que ya no puede fallar.
+    // Si algo falla en los dos primeros pasos ni el mapa ni los índices cambian. Los ids de
+    // todos los CREATE se reservan de golpe como un bloque consecutivo (con sharding, uno a uno
+    // con nextId(), porque el bloque tendría ids de otras instancias); si el lote falla esos
+    // ids no se vuelven a repartir.
+    // Devuelve, en el mismo orden, el book creado, actualizado o eliminado,
+    // o null si el UPDATE o DELETE era de un book que no existe.
+    public List<Book> applyBatch(List<BookWrite> writes) {
+        long creates = writes.stream()
+                .filter(write -> write.type() == BookWrite.Type.CREATE)
+                .count();
+
+        List<Book> results = new ArrayList<>(writes.size());
+
+        Lock lock = batchLock.writeLock();
+        lock.lock();
+        try {
+            BookCatalog catalog = this.catalog;
+            BookIdOwner owner = idOwner;
+            long nextId = owner == BookIdOwner.ALL ? sequence.getAndAdd(creates) + 1 : 0;
+
+            Map<Long, Book> pending = new HashMap<>();
+            List<BookChange> changes = new ArrayList<>(writes.size());
+            List<Runnable> reindexes = new ArrayList<>(writes.size());
+
+            for (BookWrite write : writes) {
+                Book current = write.book();
+                if (write.type() == BookWrite.Type.CREATE) {
+                    current.setId(owner == BookIdOwner.ALL ? nextId++ : nextId());
+                }
+
+                long id = write.type() == BookWrite.Type.DELETE ? write.id() : current.getId();
+                Book previous = pending.containsKey(id) ? pending.get(id) : catalog.books.get(id);
+                if (previous == null && write.type() != BookWrite.Type.CREATE) {
+                    results.add(null);
+                    continue;
+                }
+
+                if (write.type() == BookWrite.Type.DELETE) {
+                    current = null;
+                } else {
+                    current.setVersion(previous == null ? 1 : previous.getVersion() + 1);
+                }
+
+                reindexes.add(catalog.reindex(previous, current, indexes));
+                changes.add(new BookChange(previous, current));
+                pending.put(id, current);
+                results.add(write.type() == BookWrite.Type.DELETE ? previous : current);
+            }
+
+            writeLog.appendAll(changes);
+
+            for (int i = 0; i < changes.size(); i++) {
+                BookChange change = changes.get(i);
+                reindexes.get(i).run();
+                if (change.current() == null) {
+                    catalog.books.remove(change.previous().getId());
+                } else {
+                    catalog.books.put(change.current().getId(), change.current());
+                }
+                catalogVersion.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Una sola espera para todo el lote.
+        writeLog.sync();
+        return results;
+    }
+
+    // Los do*() se llaman con el lock de lectura o el de escritura, así que la generación
+    // no cambia mientras escriben.
+    private void doSave(Book book) {
+        BookCatalog catalog = this.catalog;
+        sequence.accumulateAndGet(book.getId(), Math::max);
+        catalog.books.compute(book.getId(), (id, previous) -> {
+            book.setVersion(previous == null ? 1 : previous.getVersion() + 1);
+            Runnable reindex = catalog.reindex(previous, book, indexes);
+            writeLog.append(previous, book);
+            reindex.run();
+            return book;
+        });
+        catalogVersion.incrementAndGet();
+    }
+
+    private Book doUpdate(Book book, long expectedVersion) {
+        BookCatalog catalog = this.catalog;
+        Book updated = catalog.books.computeIfPresent(book.getId(), (id, previous) -> {
+            checkVersion(previous, expectedVersion);
+            book.setVersion(previous.getVersion() + 1);
+            Runnable reindex = catalog.reindex(previous, book, indexes);
+            writeLog.append(previous, book);
+            reindex.run();
+            return book;
+        });
+
+        if (updated != null) {
+            catalogVersion.incrementAndGet();
+        }
+        return updated;
+    }
+
+    private Book doDelete(long id, long expectedVersion) {
+        BookCatalog catalog = this.catalog;
+        Book[] deleted = new Book[1];
+        catalog.books.computeIfPresent(id, (key, previous) -> {
+            checkVersion(previous, expectedVersion);
+            Runnable reindex = catalog.reindex(previous, null, indexes);
+            writeLog.append(previous, null);
+            reindex.run();
+            deleted[0] = previous;
+            return null;
+        });
+
+        if (deleted[0] != null) {
+            catalogVersion.incrementAndGet();
+        }
+        return deleted[0];
+    }
+
+    // Se llama dentro de compute(): si lanza la excepción el mapa no cambia.
+    private static void checkVersion(Book current, long expectedVersion) {
+        if (expectedVersion != ANY_VERSION && current.getVersion() != expectedVersion) {
+            throw new BookPreconditionFailedException("Book was modified - " + current.getId());
+        }
+    }
+
+    public int size() {
+        return catalog.books.size();
+    }
+}
@@ -0,0 +1,27 @@
+package com.jmunoz.books.store;
+
+import com.jmunoz.books.entity.Book;
+
+// Una escritura de un lote aplicado con BookStore.applyBatch().
+// En CREATE el id del book se ignora, porque lo asigna BookStore.
+// En DELETE solo se usa el id.
+public record BookWrite(Type type, long id, Book book) {
+
+    public enum Type {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    public static BookWrite create(Book book) {
+        return new BookWrite(Type.CREATE, 0, book);
+    }
+
+    public static BookWrite update(Book book) {
+        return new BookWrite(Type.UPDATE, book.getId(), book);
+    }
+
+    public static BookWrite delete(long id) {
+        return new BookWrite(Type.DELETE, id, null);
+    }
+}
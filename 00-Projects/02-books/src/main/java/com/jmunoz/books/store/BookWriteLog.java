@@ -0,0 +1,42 @@
+package com.jmunoz.books.store;
+
+import com.jmunoz.books.entity.Book;
+
+import java.util.List;
+
+// Registro de las escrituras de BookStore, por ejemplo un write-ahead log en disco.
+public interface BookWriteLog {
+
+    // BookWriteLog que no registra nada, el que usa BookStore por defecto.
+    BookWriteLog NONE = new BookWriteLog() {
+        @Override
+        public void append(Book previous, Book current) {
+        }
+
+        @Override
+        public void sync() {
+        }
+    };
+
+    // Registra una escritura. Igual que en BookIndex, previous es null al crear y current
+    // es null al eliminar. Se llama con el id bloqueado y antes de que la escritura sea visible;
+    // si lanza una excepción la escritura no se aplica.
+    void append(Book previous, Book current);
+
+    // Registra, en orden, todas las escrituras de un lote de BookStore.applyBatch(), antes de
+    // aplicar ninguna y con el lock de escritura de BookStore. Si lanza una excepción no se
+    // aplica ninguna, así que debería registrarlas todas o ninguna.
+    // Por defecto llama a append() con cada una: si una falla, las anteriores quedan registradas.
+    default void appendAll(List<BookChange> changes) {
+        changes.forEach(change -> append(change.previous(), change.current()));
+    }
+
+    // Espera a que todo lo registrado hasta ahora sea durable.
+    // BookStore lo llama después de cada escritura, sin tener ningún lock.
+    void sync();
+
+    // BookStore sustituyó todo el catálogo con reload(), que no pasa por append().
+    // Se llama después del cambio, sin tener ningún lock.
+    default void replaced() {
+    }
+}
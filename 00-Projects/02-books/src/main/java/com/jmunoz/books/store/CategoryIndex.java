@@ -0,0 +1,86 @@
+package com.jmunoz.books.store;
+
+import com.jmunoz.books.entity.Book;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+// Índice de categoría (en minúsculas) a los ids de sus books.
+// Así, filtrar por categoría cuesta el tamaño del resultado y no el del catálogo.
+class CategoryIndex implements BookIndex {
+
+    private final ConcurrentMap<String, NavigableSet<Long>> ids = new ConcurrentHashMap<>();
+
+    // Un book sin categoría (BookRequest no lo permite, pero puede venir de un fichero)
+    // se indexa con la categoría vacía.
+    static String key(String category) {
+        return category == null ? "" : category.toLowerCase(Locale.ROOT);
+    }
+
+    // Ids ordenados de la categoría, sin distinguir mayúsculas y minúsculas.
+    NavigableSet<Long> ids(String category) {
+        NavigableSet<Long> categoryIds = ids.get(key(category));
+        return categoryIds == null ? Collections.emptyNavigableSet() : categoryIds;
+    }
+
+    @Override
+    public void update(Book previous, Book current) {
+        prepare(previous, current).run();
+    }
+
+    @Override
+    public Runnable prepare(Book previous, Book current) {
+        String previousKey = previous == null ? null : key(previous.getCategory());
+        String currentKey = current == null ? null : key(current.getCategory());
+
+        return () -> {
+            if (previousKey != null && previousKey.equals(currentKey)) {
+                return;
+            }
+
+            if (previousKey != null) {
+                remove(previousKey, previous.getId());
+            }
+
+            if (currentKey != null) {
+                add(currentKey, current.getId());
+            }
+        };
+    }
+
+    // Añade muchos books de golpe: se agrupan los ids por categoría y cada categoría
+    // se rellena de una vez, en lugar de competir todos los hilos por las mismas categorías.
+    void addAll(Collection<Book> books) {
+        Map<String, List<Long>> categoryIds = books.parallelStream()
+                .collect(Collectors.groupingBy(book -> key(book.getCategory()),
+                        Collectors.mapping(Book::getId, Collectors.toList())));
+
+        categoryIds.entrySet().parallelStream().forEach(entry ->
+                ids.computeIfAbsent(entry.getKey(), key -> new ConcurrentSkipListSet<>()).addAll(entry.getValue()));
+    }
+
+    // compute/computeIfPresent son atómicos por categoría, así que un conjunto
+    // vacío nunca se elimina mientras otro hilo le está añadiendo un id.
+    private void add(String key, long id) {
+        ids.compute(key, (k, categoryIds) -> {
+            NavigableSet<Long> result = categoryIds == null ? new ConcurrentSkipListSet<>() : categoryIds;
+            result.add(id);
+            return result;
+        });
+    }
+
+    private void remove(String key, long id) {
+        ids.computeIfPresent(key, (k, categoryIds) -> {
+            categoryIds.remove(id);
+            return categoryIds.isEmpty() ? null : categoryIds;
+        });
+    }
+}
@@ -0,0 +1,131 @@
+package com.jmunoz.books.store;
+
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.response.BookRatingStats;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Estadísticas de rating del catálogo, de cada categoría y de cada autor, que se actualizan
+// en cada escritura en lugar de recorrer todos los books en cada petición.
+// Solo se guarda el histograma (un LongAdder por rating, que reparte los incrementos
+// concurrentes entre varias celdas); el número de books y la media se calculan a partir de él,
+// así que los tres valores devueltos siempre cuadran entre sí.
+class RatingStats implements BookIndex {
+
+    static final int MIN_RATING = 1;
+    static final int MAX_RATING = 5;
+
+    private static final class Histogram {
+
+        private final LongAdder[] counts = new LongAdder[MAX_RATING - MIN_RATING + 1];
+
+        Histogram() {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+
+        // Un rating fuera de 1-5 (no debería pasar, BookRequest lo valida) cuenta en el extremo.
+        void add(int rating, int delta) {
+            counts[Math.clamp(rating, MIN_RATING, MAX_RATING) - MIN_RATING].add(delta);
+        }
+
+        BookRatingStats snapshot() {
+            long[] histogram = new long[counts.length];
+            long count = 0;
+            long sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                histogram[i] = counts[i].sum();
+                count += histogram[i];
+                sum += histogram[i] * (i + MIN_RATING);
+            }
+            return new BookRatingStats(count, count == 0 ? 0 : (double) sum / count, histogram);
+        }
+    }
+
+    private final Histogram total = new Histogram();
+    private final ConcurrentMap<String, Histogram> byCategory = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> byAuthor = new ConcurrentHashMap<>();
+
+    BookRatingStats total() {
+        return total.snapshot();
+    }
+
+    // Estadísticas de la categoría, sin distinguir mayúsculas y minúsculas.
+    BookRatingStats category(String category) {
+        return snapshot(byCategory.get(CategoryIndex.key(category)));
+    }
+
+    // Estadísticas del autor, sin distinguir mayúsculas y minúsculas.
+    BookRatingStats author(String author) {
+        return snapshot(byAuthor.get(key(author)));
+    }
+
+    // Todas las categorías (en minúsculas) ordenadas, sin las que ya no tienen books.
+    Map<String, BookRatingStats> categories() {
+        return snapshots(byCategory);
+    }
+
+    // Igual que CategoryIndex.key(): un book sin autor cuenta con el autor vacío.
+    private static String key(String author) {
+        return author == null ? "" : author.toLowerCase(Locale.ROOT);
+    }
+
+    private static BookRatingStats snapshot(Histogram histogram) {
+        return histogram == null ? new Histogram().snapshot() : histogram.snapshot();
+    }
+
+    private static Map<String, BookRatingStats> snapshots(Map<String, Histogram> histograms) {
+        Map<String, BookRatingStats> result = new TreeMap<>();
+        histograms.forEach((key, histogram) -> {
+            BookRatingStats stats = histogram.snapshot();
+            if (stats.getCount() > 0) {
+                result.put(key, stats);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void update(Book previous, Book current) {
+        prepare(previous, current).run();
+    }
+
+    @Override
+    public Runnable prepare(Book previous, Book current) {
+        String previousCategory = previous == null ? null : CategoryIndex.key(previous.getCategory());
+        String previousAuthor = previous == null ? null : key(previous.getAuthor());
+        String currentCategory = current == null ? null : CategoryIndex.key(current.getCategory());
+        String currentAuthor = current == null ? null : key(current.getAuthor());
+
+        return () -> {
+            if (previous != null) {
+                add(previous.getRating(), previousCategory, previousAuthor, -1);
+            }
+
+            if (current != null) {
+                add(current.getRating(), currentCategory, currentAuthor, 1);
+            }
+        };
+    }
+
+    private void add(int rating, String category, String author, int delta) {
+        total.add(rating, delta);
+        add(byCategory, category, rating, delta);
+        add(byAuthor, author, rating, delta);
+    }
+
+    // computeIfAbsent() solo bloquea la clave la primera vez; después devuelve el histograma sin
+    // bloquear y se suma fuera, así que las escrituras concurrentes en la misma categoría o el
+    // mismo autor solo se reparten entre las celdas de los LongAdder.
+    // Los histogramas que se quedan vacíos no se eliminan (otro hilo podría estar sumando en
+    // ellos); categories() no los devuelve.
+    private static void add(ConcurrentMap<String, Histogram> histograms, String key, int rating, int delta) {
+        histograms.computeIfAbsent(key, k -> new Histogram()).add(rating, delta);
+    }
+}
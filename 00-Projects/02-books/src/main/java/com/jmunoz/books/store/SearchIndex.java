@@ -0,0 +1,365 @@
+package com.jmunoz.books.store;
+
+import com.jmunoz.books.entity.Book;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+// Índice invertido de las palabras del título y el autor de cada book.
+// Cada palabra (token, en minúsculas) apunta a los books que la contienen, ordenados por
+// mayor rating y luego menor id (el mismo orden que los resultados), así que la búsqueda
+// puede parar en cuanto tiene limit resultados en lugar de recorrer todos los books de la palabra.
+// Como las palabras están ordenadas (skip list), buscar por prefijo es un subMap().
+class SearchIndex implements BookIndex {
+
+    // Los términos más cortos solo buscan la palabra exacta, para que un prefijo de
+    // una letra no recorra medio catálogo.
+    static final int MIN_PREFIX_LENGTH = 2;
+
+    // Máximo de palabras que encuentra un prefijo, en orden alfabético. Sin él, un prefijo como
+    // "12" en un catálogo con muchos números en los títulos mezclaría cientos de miles de palabras.
+    static final int MAX_PREFIX_WORDS = 1_000;
+
+    // Máximo de books que se recorren buscando los que contienen todos los términos. Si el
+    // término menos frecuente es muy común y casi ninguno de sus books contiene los demás,
+    // se devuelven los encontrados hasta ese momento en lugar de recorrer todo el catálogo.
+    static final int MAX_CANDIDATES = 10_000;
+
+    // Máximo de ids que se recorren para completar los resultados con books que no contienen
+    // todos los términos. Si los términos son más frecuentes se devuelven solo los books que
+    // los contienen todos, para que una palabra muy común no recorra todo el catálogo.
+    static final int MAX_PARTIAL_CANDIDATES = 10_000;
+
+    // Books de una palabra, con el mismo orden que BookSort.RATING pero con el rating de mayor
+    // a menor. ConcurrentSkipListSet.size() recorre todo el set, así que el tamaño se lleva aparte
+    // (solo cuenta los add() y remove() que cambian el set).
+    private static final class Postings {
+
+        private final ConcurrentSkipListSet<SortKey> keys;
+        private final AtomicInteger size;
+
+        Postings(Collection<SortKey> keys) {
+            this.keys = new ConcurrentSkipListSet<>(keys);
+            this.size = new AtomicInteger(this.keys.size());
+        }
+
+        void add(SortKey key) {
+            if (keys.add(key)) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(SortKey key) {
+            if (keys.remove(key)) {
+                size.decrementAndGet();
+            }
+        }
+
+        int size() {
+            return size.get();
+        }
+    }
+
+    private final ConcurrentNavigableMap<String, Postings> ids;
+
+    private record Hit(Book book, int hits) {
+    }
+
+    private record Posting(String token, SortKey key) {
+    }
+
+    // Más términos encontrados primero, luego mayor rating y luego menor id.
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::hits).reversed()
+            .thenComparing(Comparator.comparingInt((Hit hit) -> hit.book().getRating()).reversed())
+            .thenComparingLong(hit -> hit.book().getId());
+
+    SearchIndex() {
+        this(new ConcurrentSkipListMap<>());
+    }
+
+    private SearchIndex(ConcurrentNavigableMap<String, Postings> ids) {
+        this.ids = ids;
+    }
+
+    // Índice con muchos books de golpe (al construir una generación nueva del catálogo).
+    // En lugar de añadir los books uno a uno, con todos los hilos compitiendo por las palabras
+    // más frecuentes, primero se agrupan en paralelo las claves de cada palabra y cada skip list
+    // se construye en paralelo con las demás. Las palabras se ordenan en un TreeMap, a partir
+    // del cual el constructor de ConcurrentSkipListMap monta el skip list en tiempo lineal.
+    static SearchIndex of(Collection<Book> books) {
+        Map<String, List<SortKey>> tokenKeys = books.parallelStream()
+                .flatMap(book -> {
+                    SortKey key = key(book);
+                    return tokens(book).stream().map(token -> new Posting(token, key));
+                })
+                .collect(Collectors.groupingBy(Posting::token, Collectors.mapping(Posting::key, Collectors.toList())));
+
+        Map<String, Postings> postings = tokenKeys.entrySet().parallelStream()
+                .collect(Collectors.toConcurrentMap(Map.Entry::getKey, entry -> new Postings(entry.getValue())));
+        return new SearchIndex(new ConcurrentSkipListMap<>(new TreeMap<>(postings)));
+    }
+
+    // Mayor rating primero y, con el mismo rating, menor id.
+    private static SortKey key(Book book) {
+        return new SortKey("", -book.getRating(), book.getId());
+    }
+
+    // Palabras en minúsculas del texto, sin repetir. Una palabra es una secuencia de letras
+    // y números (\p{L} y \p{N}); se recorre el texto a mano en lugar de usar una expresión
+    // regular porque se llama para cada book al cargar todo el catálogo.
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i < lower.length(); ) {
+            int codePoint = lower.codePointAt(i);
+            if (isWordChar(codePoint)) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+            i += Character.charCount(codePoint);
+        }
+        if (start >= 0) {
+            tokens.add(lower.substring(start));
+        }
+        return tokens;
+    }
+
+    private static boolean isWordChar(int codePoint) {
+        if (codePoint < 128) {
+            return (codePoint >= 'a' && codePoint <= 'z') || (codePoint >= 'A' && codePoint <= 'Z')
+                    || (codePoint >= '0' && codePoint <= '9');
+        }
+        return switch (Character.getType(codePoint)) {
+            case Character.UPPERCASE_LETTER, Character.LOWERCASE_LETTER, Character.TITLECASE_LETTER,
+                 Character.MODIFIER_LETTER, Character.OTHER_LETTER, Character.DECIMAL_DIGIT_NUMBER,
+                 Character.LETTER_NUMBER, Character.OTHER_NUMBER -> true;
+            default -> false;
+        };
+    }
+
+    // Los limit mejores books de la búsqueda (ver RANKING).
+    // Primero se prueba el caso habitual: se recorren los books del término menos frecuente
+    // en orden de ranking (mayor rating y luego menor id) y se comprueba si contienen los demás
+    // términos. Los primeros limit que los contienen todos son los mejores resultados posibles
+    // (nadie más puede tener tantos aciertos ni, con los mismos, ir antes), así que se para ahí:
+    // una palabra muy común solo recorre limit books. Como mucho se recorren MAX_CANDIDATES.
+    // Si no se llega a limit, y los términos no son demasiado frecuentes (MAX_PARTIAL_CANDIDATES),
+    // se cuentan los aciertos de todos los books que contienen algún término.
+    List<Book> search(String query, int limit, LongFunction<Book> books) {
+        List<List<Postings>> postings = tokenize(query).stream()
+                .map(this::postings)
+                .sorted(Comparator.comparingLong(SearchIndex::size))
+                .toList();
+
+        if (postings.isEmpty()) {
+            return List.of();
+        }
+
+        List<Book> result = new ArrayList<>(limit);
+        Iterator<SortKey> candidates = merge(postings.getFirst());
+        SortKey previous = null;
+        int visited = 0;
+        while (result.size() < limit && visited < MAX_CANDIDATES && candidates.hasNext()) {
+            SortKey key = candidates.next();
+            // Un book con varias palabras del mismo prefijo sale varias veces seguidas.
+            if (key.equals(previous)) {
+                continue;
+            }
+            previous = key;
+            visited++;
+
+            if (containsAll(postings, key)) {
+                // null si se eliminó mientras buscábamos.
+                Book book = books.apply(key.id());
+                if (book != null) {
+                    result.add(book);
+                }
+            }
+        }
+
+        int allTerms = postings.size();
+        long partialCandidates = postings.stream().mapToLong(SearchIndex::size).sum();
+        if (result.size() < limit && allTerms > 1 && partialCandidates <= MAX_PARTIAL_CANDIDATES) {
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            Map<SortKey, Integer> hits = new HashMap<>();
+            for (List<Postings> term : postings) {
+                Set<SortKey> termKeys = new HashSet<>();
+                term.forEach(termPostings -> termKeys.addAll(termPostings.keys));
+                termKeys.forEach(key -> hits.merge(key, 1, Integer::sum));
+            }
+            hits.forEach((key, count) -> offer(top, limit, books.apply(key.id()), count));
+
+            result = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                result.add(top.poll().book());
+            }
+            result = result.reversed();
+        }
+
+        return result;
+    }
+
+    // Books de las palabras que encuentra el término (sin copiarlos), como mucho
+    // MAX_PREFIX_WORDS. La primera es la palabra exacta, si existe.
+    private List<Postings> postings(String term) {
+        if (term.length() < MIN_PREFIX_LENGTH) {
+            Postings termPostings = ids.get(term);
+            return termPostings == null ? List.of() : List.of(termPostings);
+        }
+        List<Postings> words = new ArrayList<>();
+        for (Postings wordPostings : ids.subMap(term, true, term + Character.MAX_VALUE, true).values()) {
+            words.add(wordPostings);
+            if (words.size() == MAX_PREFIX_WORDS) {
+                break;
+            }
+        }
+        return words;
+    }
+
+    private static long size(List<Postings> term) {
+        return term.stream().mapToLong(Postings::size).sum();
+    }
+
+    // Las claves de todas las palabras de un término en orden de ranking, mezclando sus skip
+    // lists con un heap que tiene la siguiente clave de cada una. Solo se avanza en las skip
+    // lists a medida que se piden claves.
+    private static Iterator<SortKey> merge(List<Postings> term) {
+        if (term.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+        if (term.size() == 1) {
+            return term.getFirst().keys.iterator();
+        }
+
+        record Head(SortKey key, Iterator<SortKey> rest) {
+        }
+
+        PriorityQueue<Head> heads = new PriorityQueue<>(term.size(), Comparator.comparing(Head::key));
+        for (Postings termPostings : term) {
+            Iterator<SortKey> keys = termPostings.keys.iterator();
+            if (keys.hasNext()) {
+                heads.add(new Head(keys.next(), keys));
+            }
+        }
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public SortKey next() {
+                Head head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                if (head.rest().hasNext()) {
+                    heads.add(new Head(head.rest().next(), head.rest()));
+                }
+                return head.key();
+            }
+        };
+    }
+
+    // El primer término es del que sale la clave, así que no hace falta comprobarlo.
+    private static boolean containsAll(List<List<Postings>> postings, SortKey key) {
+        for (int i = 1; i < postings.size(); i++) {
+            if (postings.get(i).stream().noneMatch(termPostings -> termPostings.keys.contains(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Heap de tamaño limit con el peor resultado en la cabeza, que es el que sale al llenarse.
+    // El book es null si se eliminó mientras buscábamos.
+    private static void offer(PriorityQueue<Hit> top, int limit, Book book, int hits) {
+        if (book != null) {
+            top.add(new Hit(book, hits));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+    }
+
+    @Override
+    public void update(Book previous, Book current) {
+        prepare(previous, current).run();
+    }
+
+    @Override
+    public Runnable prepare(Book previous, Book current) {
+        Set<String> previousTokens = previous == null ? Set.of() : tokens(previous);
+        Set<String> currentTokens = current == null ? Set.of() : tokens(current);
+        SortKey previousKey = previous == null ? null : key(previous);
+        SortKey currentKey = current == null ? null : key(current);
+        // Si cambia el rating cambia la clave, y hay que moverla en todas las palabras.
+        boolean sameKey = previousKey != null && previousKey.equals(currentKey);
+
+        return () -> {
+            for (String token : previousTokens) {
+                if (!sameKey || !currentTokens.contains(token)) {
+                    remove(token, previousKey);
+                }
+            }
+
+            for (String token : currentTokens) {
+                if (!sameKey || !previousTokens.contains(token)) {
+                    add(token, currentKey);
+                }
+            }
+        };
+    }
+
+    private static Set<String> tokens(Book book) {
+        Set<String> tokens = tokenize(book.getTitle());
+        tokens.addAll(tokenize(book.getAuthor()));
+        return tokens;
+    }
+
+    // Igual que en CategoryIndex, compute/computeIfPresent son atómicos por palabra.
+    // Postings.add() y remove() no cuentan dos veces si la función se repite.
+    private void add(String token, SortKey key) {
+        ids.compute(token, (ignored, postings) -> {
+            Postings result = postings == null ? new Postings(List.of()) : postings;
+            result.add(key);
+            return result;
+        });
+    }
+
+    private void remove(String token, SortKey key) {
+        ids.computeIfPresent(token, (ignored, postings) -> {
+            postings.remove(key);
+            return postings.size() == 0 ? null : postings;
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package com.jmunoz.books.store;
+
+import com.jmunoz.books.entity.Book;
+
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Índice ordenado de books para un BookSort.
+// Al ser un skip list, continuar una página desde un cursor es un tailSet()
+// en O(log n), así que la página N cuesta lo mismo que la página 1.
+class SortIndex implements BookIndex {
+
+    private final BookSort sort;
+    private final ConcurrentSkipListSet<SortKey> keys = new ConcurrentSkipListSet<>();
+
+    SortIndex(BookSort sort) {
+        this.sort = sort;
+    }
+
+    NavigableSet<SortKey> keys() {
+        return keys;
+    }
+
+    @Override
+    public void update(Book previous, Book current) {
+        prepare(previous, current).run();
+    }
+
+    @Override
+    public Runnable prepare(Book previous, Book current) {
+        SortKey previousKey = previous == null ? null : sort.key(previous);
+        SortKey currentKey = current == null ? null : sort.key(current);
+
+        return () -> {
+            if (previousKey != null && previousKey.equals(currentKey)) {
+                return;
+            }
+
+            if (previousKey != null) {
+                keys.remove(previousKey);
+            }
+
+            if (currentKey != null) {
+                keys.add(currentKey);
+            }
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.jmunoz.books.store;
+
+import java.util.Comparator;
+
+// Clave de ordenación de un book dentro de un SortIndex.
+// text y number dependen del orden (ver BookSort) y el id deshace empates,
+// así que dos books distintos nunca tienen la misma clave y el orden es estable.
+record SortKey(String text, long number, long id) implements Comparable<SortKey> {
+
+    private static final Comparator<SortKey> ORDER = Comparator.comparing(SortKey::text)
+            .thenComparingLong(SortKey::number)
+            .thenComparingLong(SortKey::id);
+
+    @Override
+    public int compareTo(SortKey other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,119 @@
+package com.jmunoz.books.validation;
+
+import com.jmunoz.books.request.BookOperation;
+import com.jmunoz.books.request.BookRequest;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+// Las mismas validaciones que las anotaciones de BookRequest y BookOperation, pero escritas
+// a mano: sin la reflexión ni los objetos intermedios de Hibernate Validator.
+// Los límites y los mensajes se leen de las anotaciones una sola vez, al cargar la clase,
+// así que si cambian las anotaciones cambian también aquí (los mensajes son texto literal,
+// sin parámetros como {min}). Igual que en Jakarta Validation, @Size y @Min sobre un valor
+// null se consideran válidos; solo @NotNull los rechaza.
+public final class BookRequestValidator {
+
+    private static final TextRule TITLE = TextRule.of(BookRequest.class, "title");
+    private static final TextRule AUTHOR = TextRule.of(BookRequest.class, "author");
+    private static final TextRule CATEGORY = TextRule.of(BookRequest.class, "category");
+    private static final RangeRule RATING = RangeRule.of(BookRequest.class, "rating");
+    private static final String TYPE_MESSAGE = annotation(BookOperation.class, "type", NotNull.class).message();
+    private static final RangeRule OPERATION_ID = RangeRule.of(BookOperation.class, "id");
+
+    private BookRequestValidator() {
+    }
+
+    // Añade a violations los mensajes de las validaciones que no cumple bookRequest,
+    // cada uno precedido de path (por ejemplo "book.") y del nombre del campo.
+    public static void validate(BookRequest bookRequest, String path, List<String> violations) {
+        validate(bookRequest.getTitle(), bookRequest.getAuthor(), bookRequest.getCategory(),
+                bookRequest.getRating(), path, violations);
+    }
+
+    // Igual que validate(BookRequest), con los campos sueltos (por ejemplo, los de una línea
+    // del CSV de BookCsvReader), sin crear un BookRequest.
+    public static void validate(String title, String author, String category, int rating,
+                                String path, List<String> violations) {
+        TITLE.check(title, path, violations);
+        AUTHOR.check(author, path, violations);
+        CATEGORY.check(category, path, violations);
+        RATING.check(rating, path, violations);
+    }
+
+    // Igual que validate(BookRequest), para una operación del lote y su book (@Valid).
+    // Los mensajes del book empiezan por "book.", como en el property path de Jakarta Validation.
+    public static void validate(BookOperation operation, List<String> violations) {
+        if (operation.getType() == null) {
+            violations.add("type: " + TYPE_MESSAGE);
+        }
+
+        if (operation.getId() != null) {
+            OPERATION_ID.check(operation.getId(), "", violations);
+        }
+
+        if (operation.getBook() != null) {
+            validate(operation.getBook(), "book.", violations);
+        }
+    }
+
+    private static <A extends Annotation> A annotation(Class<?> type, String field, Class<A> annotationType) {
+        A annotation = findAnnotation(type, field, annotationType);
+        if (annotation == null) {
+            throw new IllegalStateException("Missing @" + annotationType.getSimpleName() + " on " + field);
+        }
+        return annotation;
+    }
+
+    private static <A extends Annotation> A findAnnotation(Class<?> type, String field, Class<A> annotationType) {
+        try {
+            return type.getDeclaredField(field).getAnnotation(annotationType);
+        } catch (NoSuchFieldException exc) {
+            throw new IllegalStateException("Missing field " + field, exc);
+        }
+    }
+
+    // @NotNull (si lo tiene) y @Size de un String. nullMessage es null si el campo no tiene @NotNull.
+    private record TextRule(String field, String nullMessage, int min, int max, String message) {
+
+        static TextRule of(Class<?> type, String field) {
+            NotNull notNull = findAnnotation(type, field, NotNull.class);
+            Size size = annotation(type, field, Size.class);
+            return new TextRule(field, notNull == null ? null : notNull.message(), size.min(), size.max(), size.message());
+        }
+
+        void check(String value, String path, List<String> violations) {
+            if (value == null) {
+                if (nullMessage != null) {
+                    violations.add(path + field + ": " + nullMessage);
+                }
+            } else if (value.length() < min || value.length() > max) {
+                violations.add(path + field + ": " + message);
+            }
+        }
+    }
+
+    // @Min y @Max de un número.
+    private record RangeRule(String field, long min, String minMessage, long max, String maxMessage) {
+
+        static RangeRule of(Class<?> type, String field) {
+            Min min = annotation(type, field, Min.class);
+            Max max = findAnnotation(type, field, Max.class);
+            return max == null
+                    ? new RangeRule(field, min.value(), min.message(), Long.MAX_VALUE, null)
+                    : new RangeRule(field, min.value(), min.message(), max.value(), max.message());
+        }
+
+        void check(long value, String path, List<String> violations) {
+            if (value < min) {
+                violations.add(path + field + ": " + minMessage);
+            } else if (value > max) {
+                violations.add(path + field + ": " + maxMessage);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.jmunoz.books.benchmark;
+
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.store.BookStore;
+
+// Books de prueba para los benchmarks, siempre los mismos para que los resultados
+// se puedan comparar entre ejecuciones.
+// 100 autores y 20 categorías, así que cada categoría tiene size / 20 books.
+final class BenchmarkBooks {
+
+    static final int CATEGORIES = 20;
+
+    private BenchmarkBooks() {
+    }
+
+    static Book book(long id) {
+        return new Book(id, "Title " + id, "Author " + (id % 100), category(id), (int) (id % 5) + 1);
+    }
+
+    static String category(long id) {
+        return "Category " + (id % CATEGORIES);
+    }
+
+    // BookStore con los books de id 1 a size.
+    static BookStore store(int size) {
+        BookStore bookStore = new BookStore();
+        for (int id = 1; id <= size; id++) {
+            bookStore.save(book(id));
+        }
+        return bookStore;
+    }
+}
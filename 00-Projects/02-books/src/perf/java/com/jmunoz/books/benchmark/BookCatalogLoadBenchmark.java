@@ -0,0 +1,63 @@
+package com.jmunoz.books.benchmark;
+
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.seed.BookCsvReader;
+import com.jmunoz.books.store.BookStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cargar el catálogo desde un fichero CSV (ver BookCatalogSeeder): solo leerlo con
+// BookCsvReader (read) y leerlo y construir la nueva generación del catálogo (reload).
+// Cada medida es una carga completa (SingleShotTime), como en un arranque.
+// Ejecutar con: ./mvnw -Pperf test-compile exec:exec -Djmh.args="BookCatalogLoadBenchmark"
+// Para 10 millones de books: -Djmh.args="BookCatalogLoadBenchmark -p books=10000000"
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+@State(Scope.Benchmark)
+public class BookCatalogLoadBenchmark {
+
+    @Param({"1000000"})
+    private int books;
+
+    private Path file;
+    private BookStore bookStore;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("books", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("id,title,author,category,rating\n");
+            for (int id = 1; id <= books; id++) {
+                Book book = BenchmarkBooks.book(id);
+                writer.write(book.getId() + ",\"" + book.getTitle() + "\"," + book.getAuthor() + ","
+                        + book.getCategory() + "," + book.getRating() + "\n");
+            }
+        }
+        bookStore = new BookStore();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<Book> read() throws IOException {
+        return BookCsvReader.read(file);
+    }
+
+    @Benchmark
+    public BookStore reload() throws IOException {
+        bookStore.reload(BookCsvReader.read(file));
+        return bookStore;
+    }
+}
@@ -0,0 +1,62 @@
+package com.jmunoz.books.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jmunoz.books.cache.BookJsonCache;
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.store.BookStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Compara serializar un book con Jackson en cada petición (lo que hace GET /api/books/{id}
+// por defecto) con devolver los bytes de BookJsonCache (books.json-cache.enabled=true).
+// Ejecutar con: ./mvnw -Pperf test-compile exec:exec -Djmh.args="BookJsonBenchmark -prof gc"
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BookJsonBenchmark {
+
+    @Param({"10000"})
+    private int catalogSize;
+
+    private ObjectMapper objectMapper;
+    private BookJsonCache bookJsonCache;
+    private Book[] books;
+
+    @Setup
+    public void setUp() {
+        // La misma configuración base de Jackson que usa Spring Boot.
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        BookStore bookStore = BenchmarkBooks.store(catalogSize);
+        books = bookStore.findAll().toArray(Book[]::new);
+
+        bookJsonCache = new BookJsonCache(bookStore, objectMapper);
+    }
+
+    // Cada hilo recorre los books en orden, para no medir el coste de generar ids aleatorios.
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        Book next(Book[] books) {
+            Book book = books[next];
+            next = next + 1 == books.length ? 0 : next + 1;
+            return book;
+        }
+    }
+
+    @Benchmark
+    public byte[] jackson(Cursor cursor) throws Exception {
+        return objectMapper.writeValueAsBytes(cursor.next(books));
+    }
+
+    @Benchmark
+    public byte[] cached(Cursor cursor) throws Exception {
+        return bookJsonCache.json(cursor.next(books));
+    }
+}
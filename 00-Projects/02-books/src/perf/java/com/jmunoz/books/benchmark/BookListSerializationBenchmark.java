@@ -0,0 +1,48 @@
+package com.jmunoz.books.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jmunoz.books.entity.Book;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serializar con Jackson la lista de books que devuelve GET /api/books, con 10, 10.000
+// y 1.000.000 de books. Se escribe en un OutputStream que descarta los bytes, como si fuera
+// la respuesta, para medir solo Jackson y no el buffer donde se guardaría el JSON.
+// Se mide el tiempo por lista (no por book), así que con -prof gc la columna gc.alloc.rate.norm
+// son los bytes reservados por cada respuesta.
+// Ejecutar con: ./mvnw -Pperf test-compile exec:exec -Djmh.args="BookListSerializationBenchmark -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BookListSerializationBenchmark {
+
+    @Param({"10", "10000", "1000000"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+    private List<Book> books;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        books = new ArrayList<>(listSize);
+        for (int id = 1; id <= listSize; id++) {
+            books.add(BenchmarkBooks.book(id));
+        }
+    }
+
+    @Benchmark
+    public void writeList() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), books);
+    }
+}
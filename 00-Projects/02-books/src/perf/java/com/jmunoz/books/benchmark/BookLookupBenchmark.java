@@ -0,0 +1,83 @@
+package com.jmunoz.books.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jmunoz.books.controller.BookController;
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.store.BookStore;
+import com.jmunoz.books.validation.BookBatchValidator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Lecturas de BookController sin pasar por HTTP: GET /api/books/{id} y GET /api/books?category=
+// Cada llamada crea su WebRequest de prueba (como haría Spring en cada petición), así que
+// ese coste también se mide.
+// Ejecutar con: ./mvnw -Pperf test-compile exec:exec -Djmh.args="BookLookupBenchmark -prof gc"
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BookLookupBenchmark {
+
+    @Param({"10000"})
+    private int catalogSize;
+
+    private BookController bookController;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        BookStore bookStore = BenchmarkBooks.store(catalogSize);
+        bookController = new BookController(bookStore, objectMapper, new BookBatchValidator(null, true));
+    }
+
+    // Ids y categorías pseudoaleatorios, generados antes de medir y con semilla fija para
+    // que todas las ejecuciones pidan lo mismo. Cada hilo empieza en un punto distinto.
+    @State(Scope.Thread)
+    public static class Requests {
+
+        private static final int SIZE = 4096;
+
+        private final long[] ids = new long[SIZE];
+        private final String[] categories = new String[SIZE];
+        private int next;
+
+        @Setup
+        public void setUp(BookLookupBenchmark benchmark) {
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i < SIZE; i++) {
+                ids[i] = random.nextLong(1, benchmark.catalogSize + 1);
+                categories[i] = BenchmarkBooks.category(random.nextInt(BenchmarkBooks.CATEGORIES));
+            }
+            next = (int) Thread.currentThread().threadId() % SIZE;
+        }
+
+        int next() {
+            next = (next + 1) & (SIZE - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Book> getBookById(Requests requests) {
+        return bookController.getBookById(requests.ids[requests.next()], webRequest());
+    }
+
+    @Benchmark
+    public ResponseEntity<List<Book>> getBooksByCategory(Requests requests) {
+        return bookController.getBooks(requests.categories[requests.next()], webRequest());
+    }
+
+    private static ServletWebRequest webRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/books"), new MockHttpServletResponse());
+    }
+}
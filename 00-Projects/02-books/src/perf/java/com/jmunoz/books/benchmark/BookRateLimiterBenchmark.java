@@ -0,0 +1,58 @@
+package com.jmunoz.books.benchmark;
+
+import com.jmunoz.books.ratelimit.BookRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Coste del limitador de peticiones por petición: un cliente, 10.000 clientes distintos
+// y un hilo por procesador gastando tokens a la vez (contended). El límite es tan alto que
+// nunca se rechaza nada, así que se mide el camino de una petición aceptada.
+// Ejecutar con: ./mvnw -Pperf test-compile exec:exec -Djmh.args="BookRateLimiterBenchmark -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BookRateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private BookRateLimiter bookRateLimiter;
+    private String[] clients;
+
+    // Cada hilo recorre los clientes por su cuenta.
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        bookRateLimiter = new BookRateLimiter(1_000_000_000L, 1_000_000_000L, CLIENTS * 2);
+
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long singleClient() {
+        return bookRateLimiter.tryAcquire(clients[0], 1);
+    }
+
+    @Benchmark
+    public long manyClients(Cursor cursor) {
+        cursor.next = (cursor.next + 1) % CLIENTS;
+        return bookRateLimiter.tryAcquire(clients[cursor.next], 1);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long contended() {
+        return bookRateLimiter.tryAcquire(clients[0], 1);
+    }
+}
@@ -0,0 +1,52 @@
+package com.jmunoz.books.benchmark;
+
+import com.jmunoz.books.controller.BookController;
+import com.jmunoz.books.metrics.BookRequestMetrics;
+import com.jmunoz.books.validation.BookBatchValidator;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.TimeUnit;
+
+// Coste por petición de los timers books.requests (BookRequestMetrics): preHandle() y
+// afterCompletion() de una petición a getBookById con el registro de Prometheus, como en la app.
+// Con -prof gc, gc.alloc.rate.norm debería ser 0 bytes por operación.
+// Ejecutar con: ./mvnw -Pperf test-compile exec:exec -Djmh.args="BookRequestMetricsBenchmark -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BookRequestMetricsBenchmark {
+
+    private BookRequestMetrics bookRequestMetrics;
+    private HandlerMethod handler;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        bookRequestMetrics = new BookRequestMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), null);
+
+        BookController bookController = new BookController(BenchmarkBooks.store(10),
+                Jackson2ObjectMapperBuilder.json().build(), new BookBatchValidator(null, true));
+        handler = new HandlerMethod(bookController,
+                BookController.class.getMethod("getBookById", long.class, WebRequest.class));
+
+        request = new MockHttpServletRequest("GET", "/api/books/1");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void recordRequest() {
+        bookRequestMetrics.preHandle(request, response, handler);
+        bookRequestMetrics.afterCompletion(request, response, handler, null);
+    }
+}
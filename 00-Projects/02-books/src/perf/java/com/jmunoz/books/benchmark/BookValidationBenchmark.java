@@ -0,0 +1,99 @@
+package com.jmunoz.books.benchmark;
+
+import com.jmunoz.books.request.BookOperation;
+import com.jmunoz.books.request.BookRequest;
+import com.jmunoz.books.validation.BookBatchValidator;
+import com.jmunoz.books.validation.BookRequestValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Coste de @Valid sobre BookRequest en POST y PUT /api/books: el Validator de Hibernate
+// Validator que usa Spring Boot, con un BookRequest válido y con uno que incumple
+// todas las validaciones (cada incumplimiento construye su mensaje), comparado con las mismas
+// validaciones escritas a mano en BookRequestValidator.
+// Los benchmarks batch* validan un lote de batchSize operaciones de POST /api/books/batch
+// con BookBatchValidator, con anotaciones (una detrás de otra) y a mano (en paralelo).
+// Ejecutar con: ./mvnw -Pperf test-compile exec:exec -Djmh.args="BookValidationBenchmark -prof gc"
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BookValidationBenchmark {
+
+    @Param({"10000"})
+    private int batchSize;
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private BookBatchValidator annotationBatchValidator;
+    private BookBatchValidator fastBatchValidator;
+    private List<BookOperation> batch;
+
+    private final BookRequest validRequest =
+            new BookRequest("Java Spring Master", "Eric Roby", "Computer Science", 5);
+    private final BookRequest invalidRequest = new BookRequest("", "", "", 0);
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        annotationBatchValidator = new BookBatchValidator(validator, false);
+        fastBatchValidator = new BookBatchValidator(validator, true);
+
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(new BookOperation(BookOperation.Type.CREATE, null, validRequest));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<BookRequest>> valid() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<BookRequest>> invalid() {
+        return validator.validate(invalidRequest);
+    }
+
+    @Benchmark
+    public List<String> fastValid() {
+        List<String> violations = new ArrayList<>(0);
+        BookRequestValidator.validate(validRequest, "", violations);
+        return violations;
+    }
+
+    @Benchmark
+    public List<String> fastInvalid() {
+        List<String> violations = new ArrayList<>(0);
+        BookRequestValidator.validate(invalidRequest, "", violations);
+        return violations;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void batchAnnotations() {
+        annotationBatchValidator.validate(batch);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void batchFast() {
+        fastBatchValidator.validate(batch);
+    }
+}
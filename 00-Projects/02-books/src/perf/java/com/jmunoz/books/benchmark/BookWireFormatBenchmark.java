@@ -0,0 +1,91 @@
+package com.jmunoz.books.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jmunoz.books.entity.Book;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Escribir la lista de GET /api/books en cada formato (JSON, CBOR y Smile), con y sin gzip,
+// como haría la respuesta. Mide el CPU de serializar (y comprimir) cada lista y, en la
+// columna wireBytes, los bytes que viajarían por la red.
+// Ejecutar con: ./mvnw -Pperf test-compile exec:exec -Djmh.args="BookWireFormatBenchmark -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BookWireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    @Param({"100", "10000"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+    private List<Book> books;
+
+    // Bytes de la última respuesta. Con AuxCounters JMH lo muestra como una columna más.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireBytes {
+
+        public long wireBytes;
+    }
+
+    // OutputStream que descarta los bytes y solo los cuenta.
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        objectMapper = builder.build();
+
+        books = new ArrayList<>(listSize);
+        for (int id = 1; id <= listSize; id++) {
+            books.add(BenchmarkBooks.book(id));
+        }
+    }
+
+    @Benchmark
+    public void writeList(WireBytes wire) throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        if (gzip) {
+            try (GZIPOutputStream out = new GZIPOutputStream(counter, 8192)) {
+                objectMapper.writeValue(out, books);
+            }
+        } else {
+            objectMapper.writeValue(counter, books);
+        }
+        wire.wireBytes = counter.count;
+    }
+}
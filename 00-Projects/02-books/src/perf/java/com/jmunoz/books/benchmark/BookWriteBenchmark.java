@@ -0,0 +1,83 @@
+package com.jmunoz.books.benchmark;
+
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.store.BookStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Crear y eliminar books en BookStore, con uno y con varios hilos a la vez.
+// Cada operación es lo que hacen POST /api/books seguido de DELETE /api/books/{id}
+// (el controller solo convierte BookRequest en Book), así que el catálogo no crece
+// y todas las iteraciones miden lo mismo.
+// Ejecutar con: ./mvnw -Pperf test-compile exec:exec -Djmh.args="BookWriteBenchmark -prof gc"
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BookWriteBenchmark {
+
+    @Param({"10000"})
+    private int catalogSize;
+
+    private BookStore bookStore;
+
+    @Setup
+    public void setUp() {
+        bookStore = BenchmarkBooks.store(catalogSize);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<Book> createDelete() {
+        return createAndDelete();
+    }
+
+    // Un hilo por procesador, todos escribiendo a la vez en las mismas categorías.
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Optional<Book> createDeleteContended() {
+        return createAndDelete();
+    }
+
+    // Lecturas por id mientras otros hilos escriben: las lecturas no toman ningún lock.
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(3)
+    public Optional<Book> reader(Reader reader) {
+        return bookStore.findById(reader.next());
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public Optional<Book> writer() {
+        return createAndDelete();
+    }
+
+    @State(Scope.Thread)
+    public static class Reader {
+
+        private int catalogSize;
+        private long next;
+
+        @Setup
+        public void setUp(BookWriteBenchmark benchmark) {
+            catalogSize = benchmark.catalogSize;
+        }
+
+        long next() {
+            next = next == catalogSize ? 1 : next + 1;
+            return next;
+        }
+    }
+
+    private Optional<Book> createAndDelete() {
+        long id = bookStore.nextId();
+        bookStore.save(BenchmarkBooks.book(id));
+        return bookStore.delete(id);
+    }
+}
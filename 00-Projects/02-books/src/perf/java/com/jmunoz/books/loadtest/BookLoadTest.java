@@ -0,0 +1,146 @@
+package com.jmunoz.books.loadtest;
+
+import com.jmunoz.books.BooksApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Prueba de carga que compara los dos modos de ejecución de las peticiones:
+// hilos de plataforma de Tomcat (por defecto, 200 como máximo) y virtual threads
+// (spring.threads.virtual.enabled=true).
+// Para cada modo arranca la app en un puerto libre con el profile loadtest y lanza clients
+// clientes a la vez contra GET /api/loadtest/books/{id}, que espera delay ms como si llamara
+// a un servicio lento. Al final muestra la latencia p50/p99, las peticiones por segundo y el
+// máximo de peticiones que la app atendió a la vez.
+//
+// Ejecutar con:
+//   ./mvnw -Pperf test-compile exec:exec -Dperf.mainClass=com.jmunoz.books.loadtest.BookLoadTest \
+//       -Dperf.args="1000 20 100"
+// Argumentos (opcionales): clientes, peticiones por cliente y delay en ms.
+public class BookLoadTest {
+
+    private static final int WARMUP_REQUESTS = 2;
+
+    private record Result(String mode, long[] latencies, long elapsedNanos, int maxInFlight, boolean virtualThreads) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int requestsPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        long delay = args.length > 2 ? Long.parseLong(args[2]) : 100;
+
+        List<Result> results = List.of(
+                run("platform", false, clients, requestsPerClient, delay),
+                run("virtual", true, clients, requestsPerClient, delay));
+
+        System.out.printf("%nclients=%d requests/client=%d delay=%dms%n", clients, requestsPerClient, delay);
+        System.out.printf("%-10s %10s %10s %10s %12s %14s%n",
+                "mode", "p50 (ms)", "p99 (ms)", "max (ms)", "requests/s", "max in flight");
+        for (Result result : results) {
+            long[] latencies = result.latencies();
+            System.out.printf("%-10s %10.1f %10.1f %10.1f %12.0f %14d%n",
+                    result.mode() + (result.virtualThreads() ? "*" : ""),
+                    millis(percentile(latencies, 0.50)),
+                    millis(percentile(latencies, 0.99)),
+                    millis(latencies[latencies.length - 1]),
+                    latencies.length / (result.elapsedNanos() / 1e9),
+                    result.maxInFlight());
+        }
+        System.out.println("* peticiones atendidas en virtual threads");
+    }
+
+    private static Result run(String mode, boolean virtualThreads, int clients, int requestsPerClient, long delay)
+            throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BooksApplication.class)
+                .profiles("loadtest")
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.max-connections=" + Math.max(8192, clients * 2),
+                        "--logging.level.root=warn");
+             // El cliente también usa virtual threads, para que no sea él quien limite la concurrencia.
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build()) {
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpRequest slowRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/loadtest/books/1?delay=" + delay))
+                    .build();
+            HttpRequest statsRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/loadtest/stats")).build();
+
+            // Calentamiento: abre las conexiones y deja que el JIT compile el camino de la petición.
+            load(client, executor, slowRequest, clients, WARMUP_REQUESTS);
+            client.send(HttpRequest.newBuilder(statsRequest.uri()).DELETE().build(), HttpResponse.BodyHandlers.discarding());
+
+            long start = System.nanoTime();
+            long[] latencies = load(client, executor, slowRequest, clients, requestsPerClient);
+            long elapsed = System.nanoTime() - start;
+
+            String stats = client.send(statsRequest, HttpResponse.BodyHandlers.ofString()).body();
+            return new Result(mode, latencies, elapsed, jsonInt(stats, "maxInFlight"),
+                    stats.contains("\"virtualThreads\":true"));
+        }
+    }
+
+    // clients clientes concurrentes, cada uno con requestsPerClient peticiones seguidas.
+    // Devuelve las latencias de todas las peticiones, ordenadas.
+    private static long[] load(HttpClient client, ExecutorService executor, HttpRequest request,
+                               int clients, int requestsPerClient) throws Exception {
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            futures.add(executor.submit(() -> {
+                long[] latencies = new long[requestsPerClient];
+                for (int j = 0; j < requestsPerClient; j++) {
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    latencies[j] = System.nanoTime() - start;
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Unexpected status " + response.statusCode());
+                    }
+                }
+                return latencies;
+            }));
+        }
+
+        long[] all = new long[clients * requestsPerClient];
+        int next = 0;
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            System.arraycopy(latencies, 0, all, next, latencies.length);
+            next += latencies.length;
+        }
+        Arrays.sort(all);
+        return all;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    // Lee un entero de un JSON plano, para no depender de Jackson en el cliente.
+    private static int jsonInt(String json, String field) {
+        int start = json.indexOf("\"" + field + "\":") + field.length() + 3;
+        int end = start;
+        while (end < json.length() && Character.isDigit(json.charAt(end))) {
+            end++;
+        }
+        return Integer.parseInt(json.substring(start, end));
+    }
+}
@@ -0,0 +1,88 @@
+package com.jmunoz.books.shard;
+
+import com.jmunoz.books.BooksApplication;
+import com.jmunoz.books.store.BookStore;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Arranca en local un cluster de instancias de la app con sharding (books.shard.enabled=true),
+// cada una en su puerto: http://localhost:8081, http://localhost:8082, ...
+// Crea algunos books a través de la primera instancia, muestra en qué instancia ha quedado
+// cada uno y comprueba que cualquier instancia devuelve el catálogo completo. Después deja
+// el cluster arrancado para probarlo con curl hasta que se pulsa Enter.
+//
+// Ejecutar con:
+//   ./mvnw -Pperf test-compile exec:exec -Dperf.mainClass=com.jmunoz.books.shard.BookShardCluster \
+//       -Dperf.args="3 8081"
+// Argumentos (opcionales): número de instancias y puerto de la primera.
+public class BookShardCluster {
+
+    private static final int NEW_BOOKS = 9;
+
+    public static void main(String[] args) throws Exception {
+        int instances = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int firstPort = args.length > 1 ? Integer.parseInt(args[1]) : 8081;
+
+        List<String> nodes = IntStream.range(firstPort, firstPort + instances)
+                .mapToObj(port -> "http://localhost:" + port)
+                .toList();
+        // Secreto compartido por las instancias del cluster (ver BookShardRouter).
+        String secret = UUID.randomUUID().toString();
+
+        List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            for (int i = 0; i < instances; i++) {
+                contexts.add(new SpringApplicationBuilder(BooksApplication.class)
+                        .run("--server.port=" + (firstPort + i),
+                                "--books.shard.enabled=true",
+                                "--books.shard.self=" + nodes.get(i),
+                                "--books.shard.nodes=" + String.join(",", nodes),
+                                "--books.shard.secret=" + secret,
+                                "--logging.level.root=warn"));
+            }
+            System.out.printf("Cluster: %s%n%n", String.join(", ", nodes));
+
+            for (int i = 0; i < NEW_BOOKS; i++) {
+                String book = """
+                        {"title":"Sharded book %d","author":"Cluster","category":"Shards","rating":%d}
+                        """.formatted(i, i % 5 + 1);
+                HttpResponse<String> created = client.send(HttpRequest.newBuilder(URI.create(nodes.getFirst() + "/api/books"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(book))
+                        .build(), HttpResponse.BodyHandlers.ofString());
+                System.out.printf("POST %s/api/books -> %d %s%n", nodes.getFirst(), created.statusCode(), created.body());
+            }
+
+            System.out.println();
+            for (int i = 0; i < instances; i++) {
+                String owned = contexts.get(i).getBean(BookStore.class).findAll().stream()
+                        .map(book -> String.valueOf(book.getId()))
+                        .collect(Collectors.joining(", "));
+                System.out.printf("%s guarda los ids [%s]%n", nodes.get(i), owned);
+            }
+
+            System.out.println();
+            for (String node : nodes) {
+                HttpResponse<String> category = client.send(HttpRequest.newBuilder(URI.create(node + "/api/books?category=shards"))
+                        .build(), HttpResponse.BodyHandlers.ofString());
+                System.out.printf("GET %s/api/books?category=shards -> %d, %d books%n",
+                        node, category.statusCode(), category.body().split("\"id\"").length - 1);
+            }
+
+            System.out.printf("%nCluster arrancado, pulsa Enter para pararlo%n");
+            System.in.read();
+        } finally {
+            contexts.forEach(ConfigurableApplicationContext::close);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.jmunoz.books.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookControllerTest {
+
+	private static final String BEARS =
+			"{\"title\": \"How Bears Hibernate\", \"author\": \"Bob B.\", \"category\": \"Science\", \"rating\": 3}";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void bookWithoutCategoryIsRejectedAndListingStillWorks() throws Exception {
+		mockMvc.perform(post("/api/books")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\": \"No Category\", \"author\": \"Someone\", \"rating\": 3}"))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(get("/api/books"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[?(@.title == 'No Category')]").isEmpty());
+		mockMvc.perform(get("/api/books").param("category", "Programming"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void catalogIsNotModifiedWhileItsETagMatches() throws Exception {
+		String eTag = mockMvc.perform(get("/api/books"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+		// Un ETag sin el valor de este arranque (por ejemplo, de antes de reiniciar) no coincide.
+		mockMvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, "\"catalog-0\""))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void updateRequiresTheCurrentETag() throws Exception {
+		String eTag = mockMvc.perform(get("/api/books/4"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/books/4").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(put("/api/books/4")
+						.header(HttpHeaders.IF_MATCH, "\"4-1\"")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(BEARS))
+				.andExpect(status().isPreconditionFailed());
+
+		String newETag = mockMvc.perform(put("/api/books/4")
+						.header(HttpHeaders.IF_MATCH, eTag)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(BEARS))
+				.andExpect(status().isNoContent())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		assertNotEquals(eTag, newETag);
+		mockMvc.perform(put("/api/books/4")
+						.header(HttpHeaders.IF_MATCH, eTag)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(BEARS))
+				.andExpect(status().isPreconditionFailed());
+	}
+
+	// Sin books.reload.enabled=true no existe POST /api/books/reload.
+	@Test
+	void reloadIsDisabledByDefault() throws Exception {
+		mockMvc.perform(post("/api/books/reload"))
+				.andExpect(status().is4xxClientError());
+		mockMvc.perform(get("/api/books/1"))
+				.andExpect(status().isOk());
+	}
+
+}
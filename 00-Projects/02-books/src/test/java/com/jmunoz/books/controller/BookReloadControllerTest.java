@@ -0,0 +1,37 @@
+package com.jmunoz.books.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sin books.seed.file: con el token correcto la recarga llega al seeder, que devuelve 400.
+@SpringBootTest(properties = {"books.reload.enabled=true", "books.reload.token=test-token"})
+@AutoConfigureMockMvc
+class BookReloadControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void reloadWithoutTheTokenIsRejected() throws Exception {
+		mockMvc.perform(post("/api/books/reload"))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(post("/api/books/reload").header(BookReloadController.TOKEN_HEADER, "wrong-token"))
+				.andExpect(status().isUnauthorized());
+
+		mockMvc.perform(get("/api/books/1"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void reloadWithTheTokenReachesTheSeeder() throws Exception {
+		mockMvc.perform(post("/api/books/reload").header(BookReloadController.TOKEN_HEADER, "test-token"))
+				.andExpect(status().isBadRequest());
+	}
+}
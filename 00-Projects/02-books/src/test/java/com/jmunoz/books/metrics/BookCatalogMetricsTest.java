@@ -0,0 +1,44 @@
+package com.jmunoz.books.metrics;
+
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.store.BookStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BookCatalogMetricsTest {
+
+	@Test
+	void categoriesOverTheLimitAreCountedAsOther() {
+		BookStore bookStore = new BookStore();
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		new BookCatalogMetrics(bookStore, meterRegistry, 2);
+
+		bookStore.seed(List.of(
+				new Book(1, "Dune", "Frank Herbert", "Fiction", 4),
+				new Book(2, "Clean Code", "Robert Martin", "Programming", 5),
+				new Book(3, "Cosmos", "Carl Sagan", "Science", 5),
+				new Book(4, "Odyssey", "Homer", "Poetry", 4),
+				new Book(5, "Anonymous", "Unknown", null, 3)));
+
+		assertEquals(3, meterRegistry.find("books.category.size").gauges().size());
+		assertEquals(1, categorySize(meterRegistry, "fiction"));
+		assertEquals(1, categorySize(meterRegistry, "programming"));
+		assertNull(meterRegistry.find("books.category.size").tag("category", "science").gauge());
+		assertEquals(3, categorySize(meterRegistry, BookCatalogMetrics.OTHER_CATEGORY));
+
+		bookStore.delete(4);
+
+		assertEquals(2, categorySize(meterRegistry, BookCatalogMetrics.OTHER_CATEGORY));
+	}
+
+	private static double categorySize(MeterRegistry meterRegistry, String category) {
+		return meterRegistry.get("books.category.size").tag("category", category).gauge().value();
+	}
+
+}
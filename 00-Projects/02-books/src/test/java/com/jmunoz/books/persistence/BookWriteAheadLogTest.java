@@ -0,0 +1,128 @@
+package com.jmunoz.books.persistence;
+
+import com.jmunoz.books.entity.Book;
+import com.jmunoz.books.store.BookStore;
+import com.jmunoz.books.store.BookWrite;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookWriteAheadLogTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void writesAreReplayedAfterARestart() throws Exception {
+		BookStore bookStore = new BookStore();
+		start(bookStore);
+
+		String longTitle = "x".repeat(70_000);
+		bookStore.save(new Book(bookStore.nextId(), "Dune", "Frank Herbert", "Fiction", 4));
+		bookStore.save(new Book(bookStore.nextId(), longTitle, null, null, 3));
+		bookStore.save(new Book(bookStore.nextId(), "Cosmos", "Carl Sagan", "Science", 5));
+		bookStore.update(new Book(1, "Dune", "Frank Herbert", "Sci-Fi", 5));
+		bookStore.delete(3);
+		long version = bookStore.version();
+
+		// Sin stop(), como si la app se hubiera caído: las escrituras solo están en el log.
+		BookStore recovered = new BookStore();
+		BookWriteAheadLog recoveredLog = start(recovered);
+
+		assertEquals(2, recovered.size());
+		assertEquals("Sci-Fi", recovered.findById(1).orElseThrow().getCategory());
+		assertEquals(2, recovered.findById(1).orElseThrow().getVersion());
+		assertEquals(longTitle, recovered.findById(2).orElseThrow().getTitle());
+		assertNull(recovered.findById(2).orElseThrow().getAuthor());
+		assertTrue(recovered.findById(3).isEmpty());
+		assertEquals(3, recovered.lastId());
+		assertTrue(recovered.version() >= version);
+
+		recoveredLog.stop();
+	}
+
+	@Test
+	void versionSurvivesASnapshot() throws Exception {
+		BookStore bookStore = new BookStore();
+		BookWriteAheadLog writeAheadLog = start(bookStore);
+
+		bookStore.save(new Book(bookStore.nextId(), "Dune", "Frank Herbert", "Fiction", 4));
+		bookStore.update(new Book(1, "Dune", "Frank Herbert", "Fiction", 5));
+		long version = bookStore.version();
+		writeAheadLog.stop();
+
+		BookStore recovered = new BookStore();
+		BookWriteAheadLog recoveredLog = start(recovered);
+
+		assertEquals(5, recovered.findById(1).orElseThrow().getRating());
+		assertTrue(recovered.version() >= version);
+
+		recoveredLog.stop();
+	}
+
+	@Test
+	void batchIsReplayedAfterARestart() throws Exception {
+		BookStore bookStore = new BookStore();
+		start(bookStore);
+
+		bookStore.save(new Book(bookStore.nextId(), "Dune", "Frank Herbert", "Fiction", 4));
+		bookStore.applyBatch(List.of(
+				BookWrite.create(new Book(0, "Cosmos", "Carl Sagan", "Science", 5)),
+				BookWrite.update(new Book(1, "Dune", "Frank Herbert", "Sci-Fi", 5)),
+				BookWrite.delete(1),
+				BookWrite.create(new Book(0, "Contact", "Carl Sagan", "Fiction", 4))));
+
+		BookStore recovered = new BookStore();
+		BookWriteAheadLog recoveredLog = start(recovered);
+
+		assertEquals(2, recovered.size());
+		assertTrue(recovered.findById(1).isEmpty());
+		assertEquals("Cosmos", recovered.findById(2).orElseThrow().getTitle());
+		assertEquals("Contact", recovered.findById(3).orElseThrow().getTitle());
+		assertTrue(recovered.version() >= bookStore.version());
+
+		recoveredLog.stop();
+	}
+
+	// Segmentos de 1MB: el lote no cabe ni en un segmento vacío, así que no se escribe nada.
+	@Test
+	void batchLargerThanASegmentIsNotApplied() throws Exception {
+		BookStore bookStore = new BookStore();
+		start(bookStore);
+
+		bookStore.save(new Book(bookStore.nextId(), "Dune", "Frank Herbert", "Fiction", 4));
+		String longTitle = "x".repeat(600_000);
+		assertThrows(IllegalStateException.class, () -> bookStore.applyBatch(List.of(
+				BookWrite.update(new Book(1, "Dune", "Frank Herbert", "Sci-Fi", 5)),
+				BookWrite.create(new Book(0, longTitle, "Someone", "Fiction", 3)),
+				BookWrite.create(new Book(0, longTitle, "Someone", "Fiction", 3)))));
+
+		assertEquals(1, bookStore.size());
+		assertEquals("Fiction", bookStore.findById(1).orElseThrow().getCategory());
+
+		BookStore recovered = new BookStore();
+		BookWriteAheadLog recoveredLog = start(recovered);
+
+		assertEquals(1, recovered.size());
+		assertEquals("Fiction", recovered.findById(1).orElseThrow().getCategory());
+
+		recoveredLog.stop();
+	}
+
+	private BookWriteAheadLog start(BookStore bookStore) throws Exception {
+		BookWriteAheadLog writeAheadLog = new BookWriteAheadLog(bookStore, directory,
+				DataSize.ofMegabytes(1), Duration.ofHours(1));
+		writeAheadLog.start();
+		return writeAheadLog;
+	}
+
+}
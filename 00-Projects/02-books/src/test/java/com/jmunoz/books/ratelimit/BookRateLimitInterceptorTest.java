@@ -0,0 +1,58 @@
+package com.jmunoz.books.ratelimit;
+
+import com.jmunoz.books.exception.BookRateLimitException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookRateLimitInterceptorTest {
+
+	private BookRateLimitInterceptor interceptor;
+
+	private HandlerMethod handler;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		// 1 petición por segundo con ráfagas de 2.
+		interceptor = new BookRateLimitInterceptor(new BookRateLimiter(1, 2, 1000), "issued-key");
+		handler = new HandlerMethod(this, getClass().getDeclaredMethod("handle"));
+	}
+
+	@Test
+	void rotatingUnknownKeysShareTheAddressLimit() {
+		assertTrue(preHandle("10.0.0.1", "random-1"));
+		assertTrue(preHandle("10.0.0.1", "random-2"));
+
+		assertThrows(BookRateLimitException.class, () -> preHandle("10.0.0.1", "random-3"));
+		assertThrows(BookRateLimitException.class, () -> preHandle("10.0.0.1", null));
+	}
+
+	@Test
+	void issuedKeyHasItsOwnLimit() {
+		assertTrue(preHandle("10.0.0.1", null));
+		assertTrue(preHandle("10.0.0.1", null));
+		assertThrows(BookRateLimitException.class, () -> preHandle("10.0.0.1", null));
+
+		assertTrue(preHandle("10.0.0.1", "issued-key"));
+		assertTrue(preHandle("10.0.0.2", "issued-key"));
+		assertThrows(BookRateLimitException.class, () -> preHandle("10.0.0.3", "issued-key"));
+	}
+
+	private boolean preHandle(String remoteAddr, String apiKey) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/1");
+		request.setRemoteAddr(remoteAddr);
+		if (apiKey != null) {
+			request.addHeader(BookRateLimitInterceptor.API_KEY_HEADER, apiKey);
+		}
+		return interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+	}
+
+	private void handle() {
+	}
+
+}
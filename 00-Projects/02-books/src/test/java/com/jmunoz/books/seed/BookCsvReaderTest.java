@@ -0,0 +1,65 @@
+package com.jmunoz.books.seed;
+
+import com.jmunoz.books.entity.Book;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookCsvReaderTest {
+
+	private static final String HEADER = "id,title,author,category,rating\n";
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void readsQuotedFields() throws Exception {
+		List<Book> books = BookCsvReader.read(csv(HEADER
+				+ "1,Dune,Frank Herbert,Fiction,4\r\n"
+				+ "\n"
+				+ "2,\"Cosmos, the \"\"book\"\"\",Carl Sagan,Science,5\n"));
+
+		assertEquals(2, books.size());
+		assertEquals("Cosmos, the \"book\"", books.get(1).getTitle());
+		assertEquals(5, books.get(1).getRating());
+	}
+
+	@Test
+	void invalidRowsAreRejectedWithTheirLine() throws Exception {
+		assertInvalid("Invalid book at line 3 - rating: Rating cannot go past 5",
+				HEADER + "1,Dune,Frank Herbert,Fiction,4\n2,Cosmos,Carl Sagan,Science,9\n");
+		assertInvalid("Invalid book at line 2 - title: Title is between 1 and 30 characters",
+				HEADER + "1,,Frank Herbert,Fiction,4\n");
+		assertInvalid("Invalid book at line 1 - category: Category is between 1 and 30 characters",
+				"1,Dune,Frank Herbert," + "x".repeat(31) + ",4\n");
+		assertInvalid("Invalid book at line 2 - id: Id must be at least 1",
+				HEADER + "0,Dune,Frank Herbert,Fiction,4\n");
+		assertInvalid("Invalid book at line 2 - expected id,title,author,category,rating",
+				HEADER + "1,Dune,Frank Herbert,Fiction\n");
+	}
+
+	@Test
+	void duplicateIdsAreRejected() throws Exception {
+		assertInvalid("Invalid book at line 4 - duplicate id 1",
+				HEADER + "1,Dune,Frank Herbert,Fiction,4\n2,Cosmos,Carl Sagan,Science,5\n1,Emma,Jane Austen,Fiction,4\n");
+	}
+
+	private void assertInvalid(String message, String content) throws Exception {
+		Path file = csv(content);
+		IllegalArgumentException exc = assertThrows(IllegalArgumentException.class, () -> BookCsvReader.read(file));
+		assertEquals(message, exc.getMessage());
+	}
+
+	private Path csv(String content) throws Exception {
+		Path file = Files.createTempFile(directory, "books", ".csv");
+		Files.writeString(file, content);
+		return file;
+	}
+
+}
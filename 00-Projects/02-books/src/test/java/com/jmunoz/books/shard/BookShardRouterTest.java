@@ -0,0 +1,43 @@
+package com.jmunoz.books.shard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookShardRouterTest {
+
+	private final BookShardRouter router = new BookShardRouter(
+			new BookShard("http://localhost:8081", "http://localhost:8081,http://localhost:8082", 128),
+			new ObjectMapper(), Duration.ofSeconds(1), "shard-secret");
+
+	@Test
+	void onlyRequestsWithTheSecretSkipRouting() {
+		assertTrue(router.shouldNotFilter(request("shard-secret")));
+
+		assertFalse(router.shouldNotFilter(request(null)));
+		assertFalse(router.shouldNotFilter(request("local")));
+		assertFalse(router.shouldNotFilter(request("shard-secret-2")));
+	}
+
+	@Test
+	void secretIsMandatory() {
+		assertThrows(IllegalArgumentException.class, () -> new BookShardRouter(
+				new BookShard("http://localhost:8081", "http://localhost:8081", 128),
+				new ObjectMapper(), Duration.ofSeconds(1), ""));
+	}
+
+	private static MockHttpServletRequest request(String shardHeader) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/1");
+		if (shardHeader != null) {
+			request.addHeader(BookShardRouter.SHARD_HEADER, shardHeader);
+		}
+		return request;
+	}
+
+}
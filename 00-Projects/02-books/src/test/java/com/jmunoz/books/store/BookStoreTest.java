@@ -0,0 +1,180 @@
+package com.jmunoz.books.store;
+
+import com.jmunoz.books.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookStoreTest {
+
+	private BookStore bookStore;
+
+	@BeforeEach
+	void setUp() {
+		bookStore = new BookStore();
+		bookStore.seed(List.of(
+				new Book(1, "Clean Code", "Robert Martin", "Programming", 5),
+				new Book(2, "Dune", "Frank Herbert", "Fiction", 4)));
+	}
+
+	@Test
+	void failedIndexLeavesStoreUnchanged() {
+		// Un índice externo que no acepta el book: la escritura falla al preparar los índices.
+		bookStore.addIndex(new BookIndex() {
+			@Override
+			public void update(Book previous, Book current) {
+			}
+
+			@Override
+			public Runnable prepare(Book previous, Book current) {
+				if (current != null && "Broken".equals(current.getTitle())) {
+					throw new IllegalStateException("broken index");
+				}
+				return () -> { };
+			}
+		});
+
+		assertThrows(IllegalStateException.class,
+				() -> bookStore.update(new Book(1, "Broken", "Someone Else", "Fiction", 1)));
+
+		assertUnchanged();
+	}
+
+	@Test
+	void failedWriteLogLeavesIndexesUnchanged() {
+		bookStore.setWriteLog(new BookWriteLog() {
+			@Override
+			public void append(Book previous, Book current) {
+				throw new IllegalStateException("disk full");
+			}
+
+			@Override
+			public void sync() {
+			}
+		});
+
+		assertThrows(IllegalStateException.class,
+				() -> bookStore.update(new Book(1, "Broken", "Someone Else", "Fiction", 1)));
+		assertThrows(IllegalStateException.class,
+				() -> bookStore.save(new Book(0, "Broken", "Someone Else", "Fiction", 1)));
+		assertThrows(IllegalStateException.class, () -> bookStore.delete(2));
+
+		assertUnchanged();
+	}
+
+	// El log falla en la segunda escritura del lote: la primera ya se había registrado,
+	// pero ninguna se aplica.
+	@Test
+	void failedWriteLogLeavesBatchUnapplied() {
+		int[] appends = new int[1];
+		bookStore.setWriteLog(new BookWriteLog() {
+			@Override
+			public void append(Book previous, Book current) {
+				if (++appends[0] == 2) {
+					throw new IllegalStateException("disk full");
+				}
+			}
+
+			@Override
+			public void sync() {
+			}
+		});
+
+		assertThrows(IllegalStateException.class, () -> bookStore.applyBatch(List.of(
+				BookWrite.update(new Book(1, "Broken", "Someone Else", "Fiction", 1)),
+				BookWrite.create(new Book(0, "Broken", "Someone Else", "Fiction", 1)),
+				BookWrite.delete(2))));
+
+		assertEquals(2, appends[0]);
+		assertUnchanged();
+	}
+
+	@Test
+	void failedIndexLeavesBatchUnapplied() {
+		bookStore.addIndex(new BookIndex() {
+			@Override
+			public void update(Book previous, Book current) {
+			}
+
+			@Override
+			public Runnable prepare(Book previous, Book current) {
+				if (current != null && "Broken".equals(current.getTitle())) {
+					throw new IllegalStateException("broken index");
+				}
+				return () -> { };
+			}
+		});
+
+		assertThrows(IllegalStateException.class, () -> bookStore.applyBatch(List.of(
+				BookWrite.delete(2),
+				BookWrite.update(new Book(1, "Clean Code 2nd Edition", "Robert Martin", "Programming", 4)),
+				BookWrite.create(new Book(0, "Broken", "Someone Else", "Fiction", 1)))));
+
+		assertUnchanged();
+	}
+
+	@Test
+	void batchWritesToTheSameIdSeeEachOther() {
+		List<Book> results = bookStore.applyBatch(List.of(
+				BookWrite.update(new Book(1, "Clean Code", "Robert Martin", "Programming", 4)),
+				BookWrite.update(new Book(1, "Clean Code", "Robert Martin", "Programming", 3)),
+				BookWrite.delete(1),
+				BookWrite.update(new Book(1, "Clean Code", "Robert Martin", "Programming", 5))));
+
+		assertEquals(3, results.get(1).getVersion());
+		assertEquals(3, results.get(2).getRating());
+		assertNull(results.get(3));
+		assertTrue(bookStore.findById(1).isEmpty());
+		assertTrue(bookStore.search("clean", 10).isEmpty());
+		assertEquals(1, bookStore.stats().getTotal().getCount());
+	}
+
+	@Test
+	void bookWithoutCategoryCanBeListed() {
+		bookStore.load(List.of(
+				new Book(1, "Clean Code", "Robert Martin", "Programming", 5),
+				new Book(3, "No Category", "Someone", null, 3)), 3, 0);
+
+		assertEquals(2, bookStore.findAll().size());
+		assertEquals(1, bookStore.findByCategory("programming").size());
+		assertEquals(1, bookStore.findPage("programming", BookSort.ID, false, 10, null).getItems().size());
+
+		bookStore.delete(3);
+
+		assertEquals(1, bookStore.findAll().size());
+	}
+
+	@Test
+	void reloadedBooksGetANewerVersionThanAnyLoadedBook() {
+		Book recovered = new Book(1, "Clean Code", "Robert Martin", "Programming", 5);
+		recovered.setVersion(10);
+		bookStore.load(List.of(recovered), 1, 3);
+
+		bookStore.reload(List.of(new Book(1, "Clean Code", "Robert Martin", "Programming", 4)));
+
+		assertTrue(bookStore.findById(1).orElseThrow().getVersion() > 10);
+		assertTrue(bookStore.version() >= bookStore.findById(1).orElseThrow().getVersion());
+	}
+
+	private void assertUnchanged() {
+		assertEquals(2, bookStore.size());
+		assertEquals("Clean Code", bookStore.findById(1).orElseThrow().getTitle());
+		assertEquals(1, bookStore.findById(1).orElseThrow().getVersion());
+		assertEquals(1, bookStore.findByCategory("programming").size());
+		assertEquals(1, bookStore.findByCategory("fiction").size());
+		assertTrue(bookStore.search("broken", 10).isEmpty());
+		assertEquals(1, bookStore.search("clean", 10).size());
+		assertEquals(2, bookStore.findPage(null, BookSort.TITLE, false, 10, null).getItems().size());
+		assertEquals(2, bookStore.findPage(null, BookSort.ID, false, 10, null).getItems().size());
+		assertEquals(1, bookStore.categoryStats("fiction").getCount());
+		assertEquals(0, bookStore.authorStats("someone else").getCount());
+		assertEquals(2, bookStore.stats().getTotal().getCount());
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.jmunoz.books.store;
+
+import com.jmunoz.books.entity.Book;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RatingStatsTest {
+
+	@Test
+	void emptyCategoriesAreNotListed() {
+		RatingStats ratingStats = new RatingStats();
+		Book dune = new Book(1, "Dune", "Frank Herbert", "Fiction", 4);
+
+		ratingStats.update(null, dune);
+		assertEquals(1, ratingStats.category("fiction").getCount());
+
+		ratingStats.update(dune, new Book(1, "Dune", "F. Herbert", "Sci-Fi", 5));
+		assertEquals(0, ratingStats.category("fiction").getCount());
+		assertEquals(1, ratingStats.category("sci-fi").getCount());
+
+		ratingStats.update(new Book(1, "Dune", "F. Herbert", "Sci-Fi", 5), null);
+		assertTrue(ratingStats.categories().isEmpty());
+		assertEquals(0, ratingStats.author("f. herbert").getCount());
+		assertEquals(0, ratingStats.total().getCount());
+	}
+
+	@Test
+	void bookWithoutAuthorIsCounted() {
+		RatingStats ratingStats = new RatingStats();
+
+		ratingStats.update(null, new Book(1, "Anonymous", null, "Poetry", 3));
+
+		assertEquals(1, ratingStats.author(null).getCount());
+		assertEquals(1, ratingStats.category("poetry").getCount());
+	}
+
+}
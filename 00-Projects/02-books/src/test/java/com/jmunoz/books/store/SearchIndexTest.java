@@ -0,0 +1,97 @@
+package com.jmunoz.books.store;
+
+import com.jmunoz.books.entity.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTest {
+
+	private static final int BOOKS = 200_000;
+
+	// Todos los books contienen "java" y "programming"; solo los múltiplos de 1.000 contienen "rare".
+	private static List<Book> catalog() {
+		List<Book> books = new ArrayList<>(BOOKS);
+		for (int id = 1; id <= BOOKS; id++) {
+			String title = id % 1_000 == 0 ? "Java Programming Rare " + id : "Java Programming " + id;
+			books.add(new Book(id, title, "Author " + id % 100, "Programming", 1 + id % 5));
+		}
+		return books;
+	}
+
+	@Test
+	void highFrequencyTermStopsAfterLimitBooks() {
+		List<Book> books = catalog();
+		Map<Long, Book> byId = books.stream().collect(Collectors.toMap(Book::getId, Function.identity()));
+		SearchIndex searchIndex = SearchIndex.of(books);
+		AtomicInteger lookups = new AtomicInteger();
+
+		List<Book> result = searchIndex.search("java", 10, id -> {
+			lookups.incrementAndGet();
+			return byId.get(id);
+		});
+
+		// Rating 5 (id % 5 == 4) y, entre ellos, menor id primero.
+		assertEquals(List.of(4L, 9L, 14L, 19L, 24L, 29L, 34L, 39L, 44L, 49L),
+				result.stream().map(Book::getId).toList());
+		assertEquals(10, lookups.get());
+	}
+
+	@Test
+	void commonPrefixOverManyWordsIsMergedInRankingOrder() {
+		List<Book> books = catalog();
+		Map<Long, Book> byId = books.stream().collect(Collectors.toMap(Book::getId, Function.identity()));
+		SearchIndex searchIndex = SearchIndex.of(books);
+		AtomicInteger lookups = new AtomicInteger();
+
+		// "1" no es prefijo (una letra), pero "10" encuentra 10, 100, 1000, 10000... en el título.
+		List<Book> result = searchIndex.search("10 programming", 5, id -> {
+			lookups.incrementAndGet();
+			return byId.get(id);
+		});
+
+		assertEquals(5, result.size());
+		for (Book book : result) {
+			assertEquals(5, book.getRating());
+			assertTrue(String.valueOf(book.getId()).startsWith("10"), book.getTitle());
+		}
+		assertEquals(5, lookups.get());
+	}
+
+	@Test
+	void rareTermIsFoundInsideCommonOnes() {
+		List<Book> books = catalog();
+		Map<Long, Book> byId = books.stream().collect(Collectors.toMap(Book::getId, Function.identity()));
+		SearchIndex searchIndex = SearchIndex.of(books);
+
+		List<Book> result = searchIndex.search("java rare", 3, byId::get);
+
+		// Múltiplos de 1.000 con rating 1 + id % 5 = 1: todos empatan y va primero el menor id.
+		assertEquals(List.of(1_000L, 2_000L, 3_000L), result.stream().map(Book::getId).toList());
+	}
+
+	@Test
+	void ratingChangeMovesTheBookInTheRanking() {
+		Book clean = new Book(1, "Clean Code", "Robert Martin", "Programming", 3);
+		Book cleaner = new Book(2, "Clean Architecture", "Robert Martin", "Programming", 4);
+		Map<Long, Book> byId = new java.util.HashMap<>(Map.of(1L, clean, 2L, cleaner));
+		SearchIndex searchIndex = SearchIndex.of(byId.values());
+
+		assertEquals(List.of(2L, 1L), searchIndex.search("clean", 10, byId::get).stream().map(Book::getId).toList());
+
+		Book rerated = new Book(1, "Clean Code", "Robert Martin", "Programming", 5);
+		searchIndex.update(clean, rerated);
+		byId.put(1L, rerated);
+
+		assertEquals(List.of(1L, 2L), searchIndex.search("clean", 10, byId::get).stream().map(Book::getId).toList());
+		assertEquals(List.of(1L), searchIndex.search("code", 10, byId::get).stream().map(Book::getId).toList());
+	}
+}
@@ -0,0 +1,34 @@
+package com.jmunoz.books.validation;
+
+import com.jmunoz.books.request.BookRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookRequestValidatorTest {
+
+	@Test
+	void validRequestHasNoViolations() {
+		List<String> violations = new ArrayList<>();
+		BookRequestValidator.validate(new BookRequest("Dune", "Frank Herbert", "Fiction", 4), "", violations);
+
+		assertTrue(violations.isEmpty());
+	}
+
+	@Test
+	void missingFieldsAreRejected() {
+		List<String> violations = new ArrayList<>();
+		BookRequestValidator.validate(new BookRequest(null, null, null, 4), "book.", violations);
+
+		assertEquals(List.of(
+						"book.title: Title is mandatory",
+						"book.author: Author is mandatory",
+						"book.category: Category is mandatory"),
+				violations);
+	}
+
+}
@@ -0,0 +1,13 @@
+-- Los ids de employee pasan a salir de la secuencia employee_seq (ver Employee),
+-- para que Hibernate pueda insertar employees en lotes JDBC.
+-- Ejecutar después de 0.sql, o sobre una BBDD que ya tenga employees, con la aplicación parada
+-- y antes de insertar el primer employee con ella.
+
+-- Drop sequence if exists.
+DROP SEQUENCE IF EXISTS employee_seq;
+
+
+-- Create employee sequence
+-- Cada valor de la secuencia reserva los 50 ids anteriores (optimizador pooled de Hibernate),
+-- así que empieza en el mayor id + 50 y el primer id nuevo será el mayor id + 1.
+CREATE SEQUENCE employee_seq START WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM employee) INCREMENT BY 50;
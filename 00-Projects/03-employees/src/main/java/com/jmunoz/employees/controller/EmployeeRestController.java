@@ -2,22 +2,38 @@ package com.jmunoz.employees.controller;
 
 import com.jmunoz.employees.entity.Employee;
 import com.jmunoz.employees.request.EmployeeRequest;
+import com.jmunoz.employees.response.EmployeeDeleteResult;
+import com.jmunoz.employees.response.EmployeePage;
+import com.jmunoz.employees.service.EmployeeExportFormat;
 import com.jmunoz.employees.service.EmployeeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/employees")
 @Tag(name = "Employee Rest API Endpoints", description = "Operations related to employees.")
 public class EmployeeRestController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_SIZE = 10_000;
+    private static final int MAX_DELETE_SIZE = 10_000;
+
     private EmployeeService employeeService;
 
     @Autowired
@@ -25,11 +41,31 @@ public class EmployeeRestController {
         this.employeeService = theEmployeeService;
     }
 
-    @Operation(summary = "Get all employees", description = "Retrieve a list of all employees.")
+    // Listado paginado por id. La primera página se pide sin next y las siguientes con el next
+    // de la página anterior, hasta que llega null. Como mucho MAX_PAGE_SIZE employees por página.
+    @Operation(summary = "Get all employees", description = "Retrieve a page of employees ordered by id.")
     @ResponseStatus(HttpStatus.OK)
     @GetMapping()
-    public List<Employee> findAll() {
-        return employeeService.findAll();
+    public EmployeePage findAll(@RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE)
+                                @Min(value = 1) @Max(value = MAX_PAGE_SIZE) int limit,
+                                @RequestParam(required = false) @Min(value = 0) Long next) {
+        return employeeService.findAll(next == null ? 0 : next, limit);
+    }
+
+    // Exporta la tabla completa en CSV o NDJSON (un employee en JSON por línea). Se escribe
+    // directamente en la respuesta según se lee de la BBDD, sin cargar todos los employees,
+    // y de forma síncrona, para que una exportación larga no caduque como una petición asíncrona.
+    @Operation(summary = "Export all employees", description = "Stream every employee as CSV or newline-delimited JSON.")
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/export")
+    public void exportEmployees(@RequestParam(defaultValue = "ndjson") @Pattern(regexp = "csv|ndjson") String format,
+                                HttpServletResponse response) throws IOException {
+        EmployeeExportFormat exportFormat = EmployeeExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"employees." + exportFormat.getExtension() + "\"");
+        employeeService.export(exportFormat, response.getOutputStream());
     }
 
     @Operation(summary = "Fetch single employee", description = "Get a single employee from database.")
@@ -48,6 +84,16 @@ public class EmployeeRestController {
         return dbEmployee;
     }
 
+    // Crea muchos employees de una vez, como mucho MAX_BULK_SIZE por petición. Se insertan en
+    // lotes JDBC (ver EmployeeDAO.saveAll), mucho más rápido que con una petición por employee.
+    @Operation(summary = "Create many employees", description = "Add a list of new employees to database in JDBC batches.")
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping("/bulk")
+    public List<Employee> addEmployees(@RequestBody @Size(min = 1, max = MAX_BULK_SIZE)
+                                       List<@Valid EmployeeRequest> employeeRequests) {
+        return employeeService.saveAll(employeeRequests);
+    }
+
     @Operation(summary = "Update an employee", description = "Update the details of a current employee.")
     @ResponseStatus(HttpStatus.OK)
     @PutMapping("/{employeeId}")
@@ -57,10 +103,25 @@ public class EmployeeRestController {
         return dbEmployee;
     }
 
+    // 404 si no se ha eliminado ningún employee, es decir, si el id no existía.
     @Operation(summary = "Delete an employee", description = "Remove an employee from the database.")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @DeleteMapping("/{employeeId}")
     public void deleteEmployee(@PathVariable @Min(value = 1) long employeeId) {
-        employeeService.deleteById(employeeId);
+        int deleted = employeeService.deleteById(employeeId);
+        if (deleted == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee id not found - " + employeeId);
+        }
+    }
+
+    // Elimina muchos employees con una sola sentencia, por ejemplo DELETE /api/employees?ids=1,2,3.
+    // Como mucho MAX_DELETE_SIZE ids por petición. Los ids que no existen se ignoran.
+    @Operation(summary = "Delete many employees", description = "Remove a list of employees from the database in one statement.")
+    @ResponseStatus(HttpStatus.OK)
+    @DeleteMapping
+    public EmployeeDeleteResult deleteEmployees(@RequestParam @Size(min = 1, max = MAX_DELETE_SIZE)
+                                                List<@Min(value = 1) Long> ids) {
+        int deleted = employeeService.deleteByIds(ids);
+        return new EmployeeDeleteResult(deleted);
     }
 }
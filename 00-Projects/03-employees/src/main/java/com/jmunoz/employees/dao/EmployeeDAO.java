@@ -2,15 +2,28 @@ package com.jmunoz.employees.dao;
 
 import com.jmunoz.employees.entity.Employee;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface EmployeeDAO {
 
-    List<Employee> findAll();
+    // Como mucho limit employees con id mayor que afterId, ordenados por id.
+    List<Employee> findAll(long afterId, int limit);
+
+    // Recorre todos los employees ordenados por id sin cargarlos todos en memoria.
+    // Devuelve cuántos ha recorrido.
+    long scrollAll(Consumer<Employee> action);
 
     Employee findById(long theId);
 
     Employee save(Employee theEmployee);
 
-    void deleteById(long theId);
+    // Inserta employees nuevos en lotes JDBC. Devuelve los mismos employees, ya con su id.
+    List<Employee> saveAll(List<Employee> theEmployees);
+
+    // Devuelven cuántos employees se han eliminado (0 si no existían).
+    int deleteById(long theId);
+
+    int deleteByIds(Collection<Long> theIds);
 }
@@ -2,11 +2,20 @@ package com.jmunoz.employees.dao;
 
 import com.jmunoz.employees.entity.Employee;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Repository
 public class EmployeeDAOJpaImpl implements EmployeeDAO {
@@ -15,15 +24,41 @@ public class EmployeeDAOJpaImpl implements EmployeeDAO {
     // Lo gestiona automáticamente Spring Boot y lo inyecta en el constructor.
     private EntityManager entityManager;
 
+    // Filas que el driver JDBC trae de la BBDD en cada viaje al recorrer todos los employees,
+    // y cada cuántos employees se vacía el EntityManager (ver scrollAll).
+    private int scrollFetchSize;
+    private int scrollClearInterval;
+
+    // Inserts que Hibernate envía juntos en cada lote JDBC.
+    private int batchSize;
+
     @Autowired
-    public EmployeeDAOJpaImpl(EntityManager theEntityManager) {
+    public EmployeeDAOJpaImpl(EntityManager theEntityManager,
+                              @Value("${employees.export.fetch-size:1000}") int theScrollFetchSize,
+                              @Value("${employees.export.clear-interval:1000}") int theScrollClearInterval,
+                              @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int theBatchSize) {
         this.entityManager = theEntityManager;
+        this.scrollFetchSize = theScrollFetchSize;
+        this.scrollClearInterval = theScrollClearInterval;
+        this.batchSize = theBatchSize;
     }
 
+    // Paginación keyset (seek): en lugar de saltar filas con OFFSET, la página empieza en el
+    // primer id mayor que afterId. La BBDD busca ese id en el índice de la primary key y lee
+    // solo limit filas, así que cualquier página cuesta lo mismo, por lejos que esté.
+    // Los employees se cargan en modo solo lectura: Hibernate no guarda una copia de cada uno
+    // para detectar cambios.
+    // La consulta va al query cache: se guardan los ids de la página y los employees salen del
+    // second-level cache. Cualquier escritura en la tabla employee invalida las páginas guardadas.
     @Override
-    public List<Employee> findAll() {
+    public List<Employee> findAll(long afterId, int limit) {
         // Create a query
-        TypedQuery<Employee> theQuery = entityManager.createQuery("from Employee", Employee.class);
+        TypedQuery<Employee> theQuery = entityManager.createQuery(
+                "from Employee e where e.id > :afterId order by e.id", Employee.class);
+        theQuery.setParameter("afterId", afterId);
+        theQuery.setMaxResults(limit);
+        theQuery.setHint(HibernateHints.HINT_READ_ONLY, true);
+        theQuery.setHint(HibernateHints.HINT_CACHEABLE, true);
 
         // Execute query and get results list
         List<Employee> employees = theQuery.getResultList();
@@ -32,6 +67,36 @@ public class EmployeeDAOJpaImpl implements EmployeeDAO {
         return employees;
     }
 
+    // A diferencia de getResultList(), que carga todas las filas a la vez, ScrollableResults
+    // recorre un cursor de solo avance (FORWARD_ONLY) y el driver trae las filas de
+    // scrollFetchSize en scrollFetchSize. Aun así, el EntityManager guarda cada employee
+    // que se lee, así que se vacía con clear() cada scrollClearInterval employees.
+    // Con eso la memoria usada no depende del tamaño de la tabla.
+    // CacheMode.IGNORE: los employees recorridos no se guardan en el second-level cache,
+    // que si no se llenaría con toda la tabla y perdería los employees más consultados.
+    // Hay que llamarlo dentro de una transacción, para que la conexión siga abierta mientras dure.
+    @Override
+    public long scrollAll(Consumer<Employee> action) {
+        Session session = entityManager.unwrap(Session.class);
+
+        try (ScrollableResults<Employee> employees = session
+                .createSelectionQuery("from Employee e order by e.id", Employee.class)
+                .setReadOnly(true)
+                .setFetchSize(scrollFetchSize)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+
+            long count = 0;
+            while (employees.next()) {
+                action.accept(employees.get());
+                if (++count % scrollClearInterval == 0) {
+                    session.clear();
+                }
+            }
+            return count;
+        }
+    }
+
     @Override
     public Employee findById(long theId) {
         Employee theEmployee = entityManager.find(Employee.class, theId);
@@ -46,9 +111,57 @@ public class EmployeeDAOJpaImpl implements EmployeeDAO {
         return dbEmployee;
     }
 
+    // persist en lugar de merge: los employees son nuevos, así que no hace falta buscarlos
+    // antes en la BBDD. Con hibernate.jdbc.batch_size, Hibernate envía los inserts en lotes
+    // de batchSize al hacer flush(). Después de cada lote se vacía el EntityManager, para
+    // que no acumule todos los employees mientras se insertan.
+    // Igual que en scrollAll, los employees insertados no se guardan en el second-level cache.
+    // Hay que llamarlo dentro de una transacción.
     @Override
-    public void deleteById(long theId) {
-        Employee theEmployee = entityManager.find(Employee.class, theId);
-        entityManager.remove(theEmployee);
+    public List<Employee> saveAll(List<Employee> theEmployees) {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+
+        try {
+            for (int i = 0; i < theEmployees.size(); i++) {
+                entityManager.persist(theEmployees.get(i));
+
+                if ((i + 1) % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+
+            entityManager.flush();
+            entityManager.clear();
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+        return theEmployees;
+    }
+
+    // La misma sentencia que deleteByIds(), con un solo id: un DELETE y ningún SELECT, esté o no
+    // el employee en el second-level cache. Además se quita ese employee de la caché en cuanto
+    // se elimina (Cache.evict()), sin esperar a que Hibernate invalide la región al terminar
+    // la transacción.
+    // Devuelve 1 si el employee existía y 0 si no.
+    @Override
+    public int deleteById(long theId) {
+        int deleted = deleteByIds(List.of(theId));
+        entityManager.getEntityManagerFactory().getCache().evict(Employee.class, theId);
+        return deleted;
+    }
+
+    // Un solo DELETE ... WHERE id IN (...), en lugar de un find() y un remove() por employee
+    // (un SELECT y un DELETE cada uno). Si algún id no existe simplemente no cuenta.
+    // Como es un delete masivo, Hibernate invalida toda la región employee del second-level
+    // cache y las páginas del query cache.
+    // Hay que llamarlo dentro de una transacción.
+    @Override
+    public int deleteByIds(Collection<Long> theIds) {
+        Query theQuery = entityManager.createQuery("delete from Employee e where e.id in (:ids)");
+        theQuery.setParameter("ids", theIds);
+        return theQuery.executeUpdate();
     }
 }
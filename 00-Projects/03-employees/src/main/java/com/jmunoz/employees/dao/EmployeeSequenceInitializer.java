@@ -0,0 +1,44 @@
+package com.jmunoz.employees.dao;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Con ddl-auto=update, si employee_seq no existe Hibernate la crea empezando en 1, y los
+// primeros ids nuevos chocarían con los de los employees que ya hay (por ejemplo, los de
+// sql/0.sql). Al arrancar, antes de que la aplicación atienda peticiones, se adelanta la
+// secuencia por encima del mayor id de la tabla.
+// Depende de entityManagerFactory para ejecutarse después de que Hibernate cree la secuencia.
+@Component
+@DependsOn("entityManagerFactory")
+public class EmployeeSequenceInitializer {
+
+    // Igual que el allocationSize de Employee.
+    static final int ALLOCATION_SIZE = 50;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public EmployeeSequenceInitializer(JdbcTemplate theJdbcTemplate) {
+        this.jdbcTemplate = theJdbcTemplate;
+    }
+
+    // Con el optimizador pooled, el valor v de la secuencia reparte los ids v - 49 a v, así que
+    // el siguiente valor tiene que ser al menos el mayor id + 50. La secuencia solo se mueve hacia
+    // delante: si ya va por delante no se toca, para no repetir ids de los bloques que otra
+    // instancia de la aplicación ya haya reservado.
+    @PostConstruct
+    public void restartAboveMaxId() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM employee", Long.class);
+        Long nextValue = jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'EMPLOYEE_SEQ'",
+                Long.class);
+
+        long minNextValue = maxId + ALLOCATION_SIZE;
+        if (nextValue < minNextValue) {
+            jdbcTemplate.execute("ALTER SEQUENCE employee_seq RESTART WITH " + minNextValue);
+        }
+    }
+}
@@ -1,17 +1,30 @@
 package com.jmunoz.employees.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 // La Entity coincide con la tabla EMPLOYEE de BBDD.
 // Creamos tanto el constructor vacío como el que tiene todos los campos.
 // Creamos todos los getter/setter.
 // Sobreescribimos el méto-do toString()
+// El id sale de la secuencia employee_seq (ver sql/1.sql y EmployeeSequenceInitializer) y no
+// de una columna IDENTITY: con IDENTITY Hibernate tiene que ejecutar cada insert en cuanto se
+// guarda el employee para conocer su id, así que no puede enviarlos en lotes JDBC. Con
+// allocationSize = 50 Hibernate usa el optimizador pooled: cada llamada a la secuencia reserva un bloque de 50 ids,
+// que se reparten en memoria.
+// Los employees se guardan en el second-level cache de Hibernate (región employee, ver
+// application.conf), así que buscar por id no va a la BBDD si ya se leyó antes. READ_WRITE
+// actualiza o invalida la entrada al guardar o eliminar el employee.
 @Entity
 @Table(name = "employee")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employee")
 public class Employee {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    @SequenceGenerator(name = "employee_seq", sequenceName = "employee_seq", allocationSize = 50)
     @Column(name = "id")
     private long id;
 
@@ -0,0 +1,20 @@
+package com.jmunoz.employees.response;
+
+// Resultado de DELETE /api/employees?ids=...: cuántos employees se han eliminado.
+// Puede ser menor que el número de ids si alguno no existía.
+public class EmployeeDeleteResult {
+
+    private int deleted;
+
+    public EmployeeDeleteResult(int deleted) {
+        this.deleted = deleted;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(int deleted) {
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,34 @@
+package com.jmunoz.employees.response;
+
+import com.jmunoz.employees.entity.Employee;
+
+import java.util.List;
+
+// Una página del listado de employees, ordenada por id.
+// next es el token para pedir la siguiente página (?next=...), o null si no hay más.
+public class EmployeePage {
+
+    private List<Employee> items;
+    private Long next;
+
+    public EmployeePage(List<Employee> items, Long next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<Employee> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Employee> items) {
+        this.items = items;
+    }
+
+    public Long getNext() {
+        return next;
+    }
+
+    public void setNext(Long next) {
+        this.next = next;
+    }
+}
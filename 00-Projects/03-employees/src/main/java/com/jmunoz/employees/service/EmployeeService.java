@@ -2,20 +2,29 @@ package com.jmunoz.employees.service;
 
 import com.jmunoz.employees.entity.Employee;
 import com.jmunoz.employees.request.EmployeeRequest;
+import com.jmunoz.employees.response.EmployeePage;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface EmployeeService {
 
-    List<Employee> findAll();
+    EmployeePage findAll(long afterId, int limit);
+
+    long export(EmployeeExportFormat format, OutputStream out) throws IOException;
 
     Employee findById(long theId);
 
     Employee save(EmployeeRequest employeeRequest);
 
+    List<Employee> saveAll(List<EmployeeRequest> employeeRequests);
+
     Employee update(long id, EmployeeRequest employeeRequest);
 
     Employee convertToEmployee(long id, EmployeeRequest employeeRequest);
 
-    void deleteById(long theId);
+    int deleteById(long theId);
+
+    int deleteByIds(List<Long> theIds);
 }
@@ -1,27 +1,104 @@
 package com.jmunoz.employees.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jmunoz.employees.dao.EmployeeDAO;
 import com.jmunoz.employees.entity.Employee;
 import com.jmunoz.employees.request.EmployeeRequest;
+import com.jmunoz.employees.response.EmployeePage;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
+    private static final String CSV_HEADER = "id,first_name,last_name,email\n";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private EmployeeDAO employeeDAO;
+    private ObjectMapper objectMapper;
 
     @Autowired
-    public EmployeeServiceImpl(EmployeeDAO theEmployeeDAO) {
+    public EmployeeServiceImpl(EmployeeDAO theEmployeeDAO, ObjectMapper theObjectMapper) {
         this.employeeDAO = theEmployeeDAO;
+        this.objectMapper = theObjectMapper;
     }
 
+    // Se pide un employee más de los que caben en la página: si llega, hay página siguiente,
+    // y empieza después del último id de esta.
     @Override
-    public List<Employee> findAll() {
-        return employeeDAO.findAll();
+    public EmployeePage findAll(long afterId, int limit) {
+        List<Employee> employees = employeeDAO.findAll(afterId, limit + 1);
+
+        if (employees.size() <= limit) {
+            return new EmployeePage(employees, null);
+        }
+
+        List<Employee> items = employees.subList(0, limit);
+        return new EmployeePage(items, items.getLast().getId());
+    }
+
+    // Escribe todos los employees en out según se leen de la BBDD (EmployeeDAO.scrollAll()),
+    // una línea por employee, sin juntarlos antes en una lista. El buffer se vacía en out cada
+    // vez que se llena, así que la memoria usada es la misma con 10 employees que con 10 millones.
+    // Devuelve cuántos employees se han exportado.
+    @Transactional
+    @Override
+    public long export(EmployeeExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+
+        if (format == EmployeeExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+
+        long count;
+        try {
+            count = employeeDAO.scrollAll(employee -> {
+                try {
+                    writer.write(format == EmployeeExportFormat.CSV
+                            ? toCsv(employee)
+                            : objectMapper.writeValueAsString(employee));
+                    writer.write('\n');
+                } catch (IOException exc) {
+                    throw new UncheckedIOException(exc);
+                }
+            });
+        } catch (UncheckedIOException exc) {
+            // Por ejemplo, el cliente ha cerrado la conexión a mitad de la exportación.
+            throw exc.getCause();
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    private static String toCsv(Employee employee) {
+        return employee.getId() + ","
+                + csvField(employee.getFirstName()) + ","
+                + csvField(employee.getLastName()) + ","
+                + csvField(employee.getEmail());
+    }
+
+    // Los campos con comas, comillas o saltos de línea van entre comillas, y sus comillas se
+    // duplican (RFC 4180). null se exporta como campo vacío.
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
 
     @Override
@@ -37,6 +114,17 @@ public class EmployeeServiceImpl implements EmployeeService {
         return employeeDAO.save(theEmployee);
     }
 
+    // Todos los employees se insertan en la misma transacción: si alguno falla, no se guarda ninguno.
+    @Transactional
+    @Override
+    public List<Employee> saveAll(List<EmployeeRequest> employeeRequests) {
+        List<Employee> theEmployees = new ArrayList<>(employeeRequests.size());
+        for (EmployeeRequest employeeRequest : employeeRequests) {
+            theEmployees.add(convertToEmployee(0, employeeRequest));
+        }
+        return employeeDAO.saveAll(theEmployees);
+    }
+
     @Transactional
     @Override
     public Employee update(long id, EmployeeRequest employeeRequest) {
@@ -55,7 +143,13 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     @Transactional
     @Override
-    public void deleteById(long theId) {
-        employeeDAO.deleteById(theId);
+    public int deleteById(long theId) {
+        return employeeDAO.deleteById(theId);
+    }
+
+    @Transactional
+    @Override
+    public int deleteByIds(List<Long> theIds) {
+        return employeeDAO.deleteByIds(theIds);
     }
 }
@@ -0,0 +1,72 @@
+package com.jmunoz.employees.benchmark;
+
+import com.jmunoz.employees.EmployeesApplication;
+import com.jmunoz.employees.request.EmployeeRequest;
+import com.jmunoz.employees.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Insertar records employees con EmployeeService.saveAll() (POST /api/employees/bulk) en una
+// BBDD H2 en memoria. Cada medida es una inserción completa (SingleShotTime), así que las
+// filas por segundo son records / tiempo. batchSize = 1 es la misma inserción sin lotes JDBC.
+// Después de cada iteración se vacía la tabla.
+// Ejecutar con: ./mvnw -Pperf test-compile exec:exec -Djmh.args="EmployeeBulkInsertBenchmark"
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class EmployeeBulkInsertBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int records;
+
+    @Param({"50", "1"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private JdbcTemplate jdbcTemplate;
+    private List<EmployeeRequest> employeeRequests;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(EmployeesApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:employees-benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=warn");
+        employeeService = context.getBean(EmployeeService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        employeeRequests = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            employeeRequests.add(new EmployeeRequest("First" + i, "Last" + i, "employee" + i + "@mail.com"));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE employee");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int bulkInsert() {
+        return employeeService.saveAll(employeeRequests).size();
+    }
+}
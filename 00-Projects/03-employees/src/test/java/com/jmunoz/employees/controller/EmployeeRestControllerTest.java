@@ -0,0 +1,38 @@
+package com.jmunoz.employees.controller;
+
+import com.jmunoz.employees.entity.Employee;
+import com.jmunoz.employees.request.EmployeeRequest;
+import com.jmunoz.employees.service.EmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// BBDD en memoria para no tocar ./data/employeedb.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:employees-controller-test;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+class EmployeeRestControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@Test
+	void deleteReturnsNotFoundOnceTheEmployeeIsGone() throws Exception {
+		Employee employee = employeeService.save(new EmployeeRequest("Ana", "Pérez", "ana@example.com"));
+
+		mockMvc.perform(delete("/api/employees/" + employee.getId()))
+				.andExpect(status().isNoContent());
+		mockMvc.perform(delete("/api/employees/" + employee.getId()))
+				.andExpect(status().isNotFound());
+	}
+}
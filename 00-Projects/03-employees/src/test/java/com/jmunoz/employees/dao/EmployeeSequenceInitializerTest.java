@@ -0,0 +1,55 @@
+package com.jmunoz.employees.dao;
+
+import com.jmunoz.employees.entity.Employee;
+import com.jmunoz.employees.request.EmployeeRequest;
+import com.jmunoz.employees.service.EmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// BBDD en memoria para no tocar ./data/employeedb.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:employees-sequence-test;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class EmployeeSequenceInitializerTest {
+
+	@Autowired
+	private EmployeeSequenceInitializer sequenceInitializer;
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void newIdsStartAboveExistingEmployees() {
+		jdbcTemplate.update("INSERT INTO employee (id, first_name, last_name, email) VALUES (?, ?, ?, ?)",
+				5000L, "Ana", "Pérez", "ana@example.com");
+
+		sequenceInitializer.restartAboveMaxId();
+		Employee employee = employeeService.save(new EmployeeRequest("Luis", "García", "luis@example.com"));
+
+		assertTrue(employee.getId() > 5000, "id " + employee.getId());
+	}
+
+	@Test
+	void neverMovesTheSequenceBack() {
+		jdbcTemplate.execute("ALTER SEQUENCE employee_seq RESTART WITH 10000");
+
+		sequenceInitializer.restartAboveMaxId();
+
+		assertEquals(10000L, nextSequenceValue());
+	}
+
+	private long nextSequenceValue() {
+		return jdbcTemplate.queryForObject(
+				"SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'EMPLOYEE_SEQ'",
+				Long.class);
+	}
+}
@@ -0,0 +1,119 @@
+package com.jmunoz.employees.service;
+
+import com.jmunoz.employees.entity.Employee;
+import com.jmunoz.employees.request.EmployeeRequest;
+import com.jmunoz.employees.response.EmployeePage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// BBDD en memoria para no tocar ./data/employeedb.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:employees-service-test;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class EmployeeServiceImplTest {
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@Test
+	void nextPointsAtTheLastIdOfEachPage() {
+		List<Employee> employees = employeeService.saveAll(List.of(
+				new EmployeeRequest("Ana", "Pérez", "ana@example.com"),
+				new EmployeeRequest("Luis", "García", "luis@example.com"),
+				new EmployeeRequest("Eva", "López", "eva@example.com"),
+				new EmployeeRequest("Juan", "Martín", "juan@example.com")));
+		long beforeFirst = employees.get(0).getId() - 1;
+
+		EmployeePage firstPage = employeeService.findAll(beforeFirst, 2);
+		assertEquals(List.of(employees.get(0).getId(), employees.get(1).getId()), ids(firstPage));
+		assertEquals(Long.valueOf(employees.get(1).getId()), firstPage.getNext());
+
+		// Quedan exactamente limit employees: es la última página y no tiene next.
+		EmployeePage lastPage = employeeService.findAll(firstPage.getNext(), 2);
+		assertEquals(List.of(employees.get(2).getId(), employees.get(3).getId()), ids(lastPage));
+		assertNull(lastPage.getNext());
+
+		employeeService.deleteByIds(ids(firstPage));
+		employeeService.deleteByIds(ids(lastPage));
+	}
+
+	@Test
+	void nextSkipsEmployeesDeletedBetweenPages() {
+		List<Employee> employees = employeeService.saveAll(List.of(
+				new EmployeeRequest("Ana", "Pérez", "ana@example.com"),
+				new EmployeeRequest("Luis", "García", "luis@example.com"),
+				new EmployeeRequest("Eva", "López", "eva@example.com")));
+
+		EmployeePage firstPage = employeeService.findAll(employees.get(0).getId() - 1, 1);
+		employeeService.deleteById(employees.get(1).getId());
+		EmployeePage secondPage = employeeService.findAll(firstPage.getNext(), 1);
+
+		assertEquals(List.of(employees.get(2).getId()), ids(secondPage));
+		assertNull(secondPage.getNext());
+
+		employeeService.deleteByIds(List.of(employees.get(0).getId(), employees.get(2).getId()));
+	}
+
+	@Test
+	void csvExportQuotesFieldsWithSeparatorsAndQuotes() throws IOException {
+		List<Employee> employees = employeeService.saveAll(List.of(
+				new EmployeeRequest("Ana", "Pérez", "ana@example.com"),
+				new EmployeeRequest("Ana, María", "O\"Brien", "ana.maria@example.com"),
+				new EmployeeRequest("Luis\nAlberto", null, "luis@example.com")));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		employeeService.export(EmployeeExportFormat.CSV, out);
+		String csv = out.toString(StandardCharsets.UTF_8);
+
+		assertTrue(csv.startsWith("id,first_name,last_name,email\n"), csv);
+		assertTrue(csv.contains(employees.get(0).getId() + ",Ana,Pérez,ana@example.com\n"), csv);
+		assertTrue(csv.contains(employees.get(1).getId() + ",\"Ana, María\",\"O\"\"Brien\",ana.maria@example.com\n"), csv);
+		assertTrue(csv.contains(employees.get(2).getId() + ",\"Luis\nAlberto\",,luis@example.com\n"), csv);
+
+		employeeService.deleteByIds(employees.stream().map(Employee::getId).toList());
+	}
+
+	@Test
+	void deleteByIdReturnsOneOnlyIfTheEmployeeExists() {
+		Employee employee = employeeService.save(new EmployeeRequest("Ana", "Pérez", "ana@example.com"));
+
+		assertEquals(1, employeeService.deleteById(employee.getId()));
+		assertNull(employeeService.findById(employee.getId()));
+		assertEquals(0, employeeService.deleteById(employee.getId()));
+	}
+
+	@Test
+	void deleteByIdsCountsOnlyExistingEmployees() {
+		List<Employee> employees = employeeService.saveAll(List.of(
+				new EmployeeRequest("Ana", "Pérez", "ana@example.com"),
+				new EmployeeRequest("Luis", "García", "luis@example.com"),
+				new EmployeeRequest("Eva", "López", "eva@example.com")));
+		long first = employees.get(0).getId();
+		long second = employees.get(1).getId();
+		long third = employees.get(2).getId();
+
+		assertEquals(2, employeeService.deleteByIds(List.of(first, second, Long.MAX_VALUE)));
+		assertNull(employeeService.findById(first));
+		assertNull(employeeService.findById(second));
+		assertNotNull(employeeService.findById(third));
+
+		assertEquals(0, employeeService.deleteByIds(List.of(first, second)));
+		assertEquals(1, employeeService.deleteByIds(List.of(third, third)));
+	}
+
+	private static List<Long> ids(EmployeePage page) {
+		return page.getItems().stream().map(Employee::getId).toList();
+	}
+}